@@ -0,0 +1,97 @@
+package com.tkforgeworks.cookconnect.recipeservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipeChangedEvent;
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipesImportedEvent;
+import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.AuthorRecipeSliceDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/*
+First page of each author's recipe listing, per audience and page size.
+    works like RecipePageCache but with a generation per author, so a write only orphans that author's pages.
+    generations are stamped from one instance-wide clock: an author whose stamp was evicted restarts at the
+    current clock value, which is past every stamp issued before that author's last write,
+    so an orphaned page can never become reachable again. concurrent misses share one load
+ */
+@Slf4j
+@Component
+public class AuthorPageCache {
+    public static final String CACHE_NAME = "authorPages";
+    private final Cache<String, AuthorRecipeSliceDto> cache;
+    private final Cache<String, Long> generations;
+    private final SingleFlight<String, AuthorRecipeSliceDto> loads;
+    private final AtomicLong clock = new AtomicLong();
+
+    public AuthorPageCache(MeterRegistry meterRegistry,
+                           @Value("${tkforgeworks.cache.author-pages.max-size:20000}") long maxSize,
+                           @Value("${tkforgeworks.cache.author-pages.ttl:PT5M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.loads = new SingleFlight<>(CACHE_NAME, meterRegistry);
+    }
+
+    //read before the page is loaded, like RecipePageCache.key
+    public String key(String createdBy, String query) {
+        Long generation = generations.get(createdBy, author -> clock.get());
+        return createdBy + ":" + generation + ":" + query;
+    }
+
+    public AuthorRecipeSliceDto get(String key, Supplier<AuthorRecipeSliceDto> loader) {
+        AuthorRecipeSliceDto cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        return loads.execute(key, () -> {
+            AuthorRecipeSliceDto loaded = loader.get();
+            cache.put(key, loaded);
+            return loaded;
+        });
+    }
+
+    public void invalidate(String createdBy) {
+        if (createdBy != null) {
+            generations.put(createdBy, clock.incrementAndGet());
+            log.debug("Invalidated {} for author {}", CACHE_NAME, createdBy);
+        }
+    }
+
+    //every author's next key is stamped past the old clock, so all cached pages are orphaned at once
+    public void invalidateAll() {
+        clock.incrementAndGet();
+        generations.invalidateAll();
+        log.debug("Invalidated {} for every author", CACHE_NAME);
+    }
+
+    @TransactionalEventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        invalidate(event.recipe().getCreatedBy());
+    }
+
+    @TransactionalEventListener
+    public void onRecipesImported(RecipesImportedEvent event) {
+        event.recipes().stream()
+                .map(Recipe::getCreatedBy)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(this::invalidate);
+    }
+}
@@ -0,0 +1,8 @@
+package com.tkforgeworks.cookconnect.recipeservice.cache;
+
+import java.io.Serializable;
+
+//key is null for whole-cache invalidations such as a recipePages generation bump
+public record CacheInvalidationMessage(String cache,
+                                       String key)
+        implements Serializable {}
@@ -0,0 +1,90 @@
+package com.tkforgeworks.cookconnect.recipeservice.cache;
+
+import com.tkforgeworks.cookconnect.recipeservice.repository.RecipeRepository;
+import com.tkforgeworks.cookconnect.recipeservice.service.IngredientService;
+import com.tkforgeworks.cookconnect.recipeservice.service.RecipeService;
+import com.tkforgeworks.cookconnect.recipeservice.service.TagService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/*
+Fills the local caches before a fresh instance takes traffic.
+    runs once after startup on its own thread: dictionaries first, then the first browse pages, then the details
+    of the most viewed recipes; it stops at the time budget so a slow database can delay, but never block,
+    the instance going UP
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheWarmer {
+    private final RecipeService recipeService;
+    private final IngredientService ingredientService;
+    private final TagService tagService;
+    private final RecipeRepository recipeRepository;
+    private volatile boolean finished;
+
+    @Value("${tkforgeworks.warm-up.enabled:true}")
+    private boolean enabled;
+    @Value("${tkforgeworks.warm-up.budget:PT30S}")
+    private Duration budget;
+    @Value("${tkforgeworks.warm-up.browse-pages:5}")
+    private int browsePages;
+    @Value("${tkforgeworks.warm-up.page-size:20}")
+    private int pageSize;
+    @Value("${tkforgeworks.warm-up.recipe-details:200}")
+    private int recipeDetails;
+    @Value("${tkforgeworks.warm-up.ingredients:2000}")
+    private int ingredients;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmUp() {
+        if (!enabled) {
+            finished = true;
+            return;
+        }
+        Thread.ofPlatform().name("cache-warm-up").daemon(true).start(this::warmUp);
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    //PRIVATE
+    private void warmUp() {
+        long started = System.nanoTime();
+        long deadline = started + budget.toNanos();
+        try {
+            tagService.refreshTagDictionary();
+            int loadedIngredients = ingredientService.preloadDictionary(ingredients);
+
+            int pages = 0;
+            for (; pages < browsePages && System.nanoTime() < deadline; pages++) {
+                recipeService.getAllRecipesSummaryJson(PageRequest.of(pages, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")));
+            }
+
+            int details = 0;
+            if (System.nanoTime() < deadline) {
+                List<Long> recipeIds = recipeRepository.findMostViewedIds(Limit.of(recipeDetails));
+                for (int from = 0; from < recipeIds.size() && System.nanoTime() < deadline; from += pageSize) {
+                    details += recipeService.warmRecipeDetails(recipeIds.subList(from, Math.min(from + pageSize, recipeIds.size())));
+                }
+            }
+            log.info("Cache warm-up loaded {} ingredients, {} browse pages, {} recipe details in {} ms",
+                    loadedIngredients, pages, details, Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Cache warm-up aborted, continuing with cold caches: {}", e.getMessage());
+        } finally {
+            finished = true;
+        }
+    }
+}
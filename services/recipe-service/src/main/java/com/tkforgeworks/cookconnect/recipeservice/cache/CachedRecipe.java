@@ -0,0 +1,29 @@
+package com.tkforgeworks.cookconnect.recipeservice.cache;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+public record CachedRecipe(RecipeDto recipe,
+                           LocalDateTime updatedAt,
+                           VisibilitySettings visibility) {
+    //weak, equal versions map to equal content but set order in the JSON may differ between loads
+    public String eTag() {
+        if (updatedAt == null) {
+            return null;
+        }
+        Instant version = updatedAt.toInstant(ZoneOffset.UTC);
+        return String.format("W/\"%d-%x\"", recipe.id(), version.getEpochSecond() * 1_000_000_000L + version.getNano());
+    }
+
+    public boolean isPublic() {
+        return visibility == null || visibility == VisibilitySettings.PUBLIC;
+    }
+
+    public boolean isOlderThan(CachedRecipe other) {
+        return other != null && updatedAt != null && other.updatedAt() != null && updatedAt.isBefore(other.updatedAt());
+    }
+}
@@ -0,0 +1,17 @@
+package com.tkforgeworks.cookconnect.recipeservice.cache;
+
+import com.tkforgeworks.cookconnect.recipeservice.common.dto.UserServiceResponseDto;
+
+import java.time.Duration;
+
+//a null user records that user-service answered 404 for the id
+public record CachedUser(UserServiceResponseDto user,
+                         long loadedAtNanos) {
+    public boolean isNotFound() {
+        return user == null;
+    }
+
+    public boolean isYoungerThan(Duration age) {
+        return System.nanoTime() - loadedAtNanos < age.toNanos();
+    }
+}
@@ -0,0 +1,38 @@
+package com.tkforgeworks.cookconnect.recipeservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Function;
+
+/*
+The set of authors each caller follows, as last read from social-service.
+    decides which PROTECTED recipes a caller may see; a follow or unfollow shows up here within ttl.
+    concurrent misses for one caller share a single load
+ */
+@Component
+public class FollowingCache {
+    public static final String CACHE_NAME = "following";
+    private final Cache<String, Set<String>> cache;
+
+    public FollowingCache(MeterRegistry meterRegistry,
+                          @Value("${tkforgeworks.cache.following.max-size:20000}") long maxSize,
+                          @Value("${tkforgeworks.cache.following.ttl:PT1M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Set<String> get(String ccUserId, Function<String, Set<String>> loader) {
+        return cache.get(ccUserId, loader);
+    }
+}
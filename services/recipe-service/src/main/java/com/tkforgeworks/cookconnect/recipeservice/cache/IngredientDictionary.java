@@ -0,0 +1,65 @@
+package com.tkforgeworks.cookconnect.recipeservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tkforgeworks.cookconnect.recipeservice.model.Ingredient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+Bounded name -> Ingredient dictionary for the recipe create path.
+    holds detached, read-only Ingredient rows so hot ingredients (salt, butter, garlic) resolve without a SELECT,
+    keys are normalized names (trimmed, case-insensitive); spellings the column collation also folds together
+    (accents, ß) are added under their own key once the database has matched them to a row
+ */
+@Component
+public class IngredientDictionary {
+    public static final String CACHE_NAME = "ingredientDictionary";
+    private final Cache<String, Ingredient> cache;
+
+    public IngredientDictionary(MeterRegistry meterRegistry,
+                                @Value("${tkforgeworks.cache.ingredient-dictionary.max-size:5000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public Map<String, Ingredient> getAll(Collection<String> normalizedNames) {
+        Map<String, Ingredient> found = new HashMap<>();
+        for (String name : normalizedNames) {
+            Ingredient ingredient = cache.getIfPresent(name);
+            if (ingredient != null) {
+                found.put(name, ingredient);
+            }
+        }
+        return found;
+    }
+
+    public void putAll(Collection<Ingredient> ingredients) {
+        for (Ingredient ingredient : ingredients) {
+            cache.put(normalize(ingredient.getName()), ingredient);
+        }
+    }
+
+    //keyed by the names that were looked up, a spelling the column collation folds onto another row finds it here next time
+    public void putAll(Map<String, Ingredient> ingredientsByName) {
+        cache.putAll(ingredientsByName);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
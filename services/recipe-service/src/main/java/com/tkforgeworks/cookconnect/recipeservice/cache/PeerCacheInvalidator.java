@@ -0,0 +1,360 @@
+package com.tkforgeworks.cookconnect.recipeservice.cache;
+
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipeChangedEvent;
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipesImportedEvent;
+import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+import com.tkforgeworks.cookconnect.recipeservice.search.RecipeSearchIndexer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/*
+Keeps the local caches of every recipe-service replica coherent.
+    after a recipe write commits, the writing instance POSTs compact invalidation messages to each peer
+    it finds in Eureka. every peer has its own bounded queue, drained by one task at a time on a shared pool,
+    so a slow peer never delays the others. delivery is at least once (every message is idempotent): a failed
+    post is retried with backoff, a peer that times out, refuses the connection or keeps failing is suspended
+    and its queue retried once suspend-for has passed, and a queue that fills up meanwhile collapses into a
+    single message flushing every cache. only a batch the peer rejects with a 4xx is given up.
+    staleness bound: a registered peer is behind by the retries plus suspend-for per outage; a peer that drops
+    out of Eureka loses its queue and serves entries for at most their ttl, and its search indexes (which a
+    flush does not rebuild) catch up through RecipeSearchIndexer's periodic sweep
+ */
+@Slf4j
+@Component
+public class PeerCacheInvalidator {
+    public static final String TOKEN_HEADER = "X-Cache-Invalidation-Token";
+    public static final String RECIPE_INDEX = "recipeIndex";
+    public static final String ALL_CACHES = "allCaches";
+    private static final String INVALIDATE_PATH = "/internal/cache/invalidate";
+    private final DiscoveryClient discoveryClient;
+    private final ObjectProvider<Registration> registration;
+    private final RecipePageCache recipePageCache;
+    private final RecipeDetailCache recipeDetailCache;
+    private final AuthorPageCache authorPageCache;
+    private final RecipeSearchIndexer recipeSearchIndexer;
+    private final RestClient restClient;
+    private final ScheduledExecutorService executor;
+    //reindexes requested by peers, off the request thread; a full queue leaves the recipe to the catch-up sweep
+    private final ThreadPoolExecutor reindexer;
+    private final Map<String, Peer> peers = new ConcurrentHashMap<>();
+    private final Duration timeout;
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter collapsed;
+    private final Counter received;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+    @Value("${tkforgeworks.cache.peer-invalidation.token:}")
+    private String token;
+    @Value("${tkforgeworks.cache.peer-invalidation.max-attempts:5}")
+    private int maxAttempts;
+    @Value("${tkforgeworks.cache.peer-invalidation.initial-backoff:PT0.2S}")
+    private Duration initialBackoff;
+    @Value("${tkforgeworks.cache.peer-invalidation.queue-capacity:1000}")
+    private int queueCapacity;
+    @Value("${tkforgeworks.cache.peer-invalidation.suspend-for:PT30S}")
+    private Duration suspendFor;
+
+    public PeerCacheInvalidator(DiscoveryClient discoveryClient,
+                                ObjectProvider<Registration> registration,
+                                RecipePageCache recipePageCache,
+                                RecipeDetailCache recipeDetailCache,
+                                AuthorPageCache authorPageCache,
+                                RecipeSearchIndexer recipeSearchIndexer,
+                                MeterRegistry meterRegistry,
+                                @Value("${tkforgeworks.cache.peer-invalidation.timeout:PT1S}") Duration timeout,
+                                @Value("${tkforgeworks.cache.peer-invalidation.threads:4}") int threads,
+                                @Value("${tkforgeworks.cache.peer-invalidation.reindex-queue-capacity:1000}") int reindexQueueCapacity) {
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        this.recipePageCache = recipePageCache;
+        this.recipeDetailCache = recipeDetailCache;
+        this.authorPageCache = authorPageCache;
+        this.recipeSearchIndexer = recipeSearchIndexer;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        this.timeout = timeout;
+        this.executor = Executors.newScheduledThreadPool(threads, Thread.ofPlatform()
+                .name("peer-cache-invalidator-", 0)
+                .daemon(true)
+                .factory());
+        this.reindexer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(reindexQueueCapacity),
+                Thread.ofPlatform().name("peer-reindex").daemon(true).factory(),
+                (task, pool) -> log.debug("Peer reindex queue full, leaving the recipe to the catch-up sweep"));
+        this.delivered = Counter.builder("cache.invalidation.sent").tag("outcome", "delivered").register(meterRegistry);
+        this.failed = Counter.builder("cache.invalidation.sent").tag("outcome", "failed").register(meterRegistry);
+        this.collapsed = Counter.builder("cache.invalidation.sent").tag("outcome", "collapsed").register(meterRegistry);
+        this.received = Counter.builder("cache.invalidation.received").register(meterRegistry);
+    }
+
+    /*
+    Refuses to start without a token once other replicas are registered.
+        without one nothing is sent or accepted, so every replica would keep serving changed recipes until
+        their cache entries expire; a lone instance (e.g. running locally) only gets a warning
+     */
+    @PostConstruct
+    public void requireTokenWithPeers() {
+        if (!token.isBlank()) {
+            return;
+        }
+        String self = selfId();
+        long peerCount = discoveryClient.getInstances(applicationName).stream()
+                .filter(instance -> !instance.getInstanceId().equals(self))
+                .count();
+        if (peerCount > 0) {
+            throw new IllegalStateException(String.format(
+                    "tkforgeworks.cache.peer-invalidation.token must be set, %d other %s replicas are registered", peerCount, applicationName));
+        }
+        log.warn("tkforgeworks.cache.peer-invalidation.token is not set, peer cache invalidation is disabled until it is");
+    }
+
+    @TransactionalEventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        String recipeId = String.valueOf(event.recipe().getId());
+        List<CacheInvalidationMessage> messages = new ArrayList<>(List.of(
+                new CacheInvalidationMessage(RecipePageCache.CACHE_NAME, null),
+                new CacheInvalidationMessage(RecipeDetailCache.CACHE_NAME, recipeId),
+                new CacheInvalidationMessage(RECIPE_INDEX, recipeId)
+        ));
+        if (event.recipe().getCreatedBy() != null) {
+            messages.add(new CacheInvalidationMessage(AuthorPageCache.CACHE_NAME, event.recipe().getCreatedBy()));
+        }
+        broadcast(messages);
+    }
+
+    /*
+    Imported recipes are new, so no peer holds their details; peers only drop their pages and their authors' pages.
+        their search indexes pick the chunk up in the next catch-up sweep, which reads changed recipes
+        in bulk instead of one reindex call per recipe
+     */
+    @TransactionalEventListener
+    public void onRecipesImported(RecipesImportedEvent event) {
+        List<CacheInvalidationMessage> messages = new ArrayList<>();
+        messages.add(new CacheInvalidationMessage(RecipePageCache.CACHE_NAME, null));
+        event.recipes().stream()
+                .map(Recipe::getCreatedBy)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(createdBy -> messages.add(new CacheInvalidationMessage(AuthorPageCache.CACHE_NAME, createdBy)));
+        broadcast(messages);
+    }
+
+    public void broadcast(List<CacheInvalidationMessage> messages) {
+        if (token.isBlank()) {
+            return;
+        }
+        String self = selfId();
+        List<ServiceInstance> instances = discoveryClient.getInstances(applicationName);
+        //peers gone from Eureka take their queues with them
+        Set<String> current = instances.stream().map(ServiceInstance::getInstanceId).collect(Collectors.toSet());
+        peers.keySet().retainAll(current);
+        for (ServiceInstance instance : instances) {
+            if (!instance.getInstanceId().equals(self)) {
+                peers.computeIfAbsent(instance.getInstanceId(), id -> new Peer(instance)).enqueue(messages);
+            }
+        }
+    }
+
+    //INTERNAL
+    public boolean isTrusted(String presentedToken) {
+        return !token.isBlank() && presentedToken != null && MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), presentedToken.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*
+    Applies messages from a peer locally, never re-broadcasts.
+        a malformed message is skipped with a warning: failing the request would only make the sender retry
+        the same batch
+     */
+    public void apply(List<CacheInvalidationMessage> messages) {
+        for (CacheInvalidationMessage message : messages) {
+            received.increment();
+            if (message == null || message.cache() == null) {
+                log.warn("Ignoring invalidation without a cache name");
+                continue;
+            }
+            switch (message.cache()) {
+                case RecipePageCache.CACHE_NAME -> recipePageCache.bumpGeneration();
+                case RecipeDetailCache.CACHE_NAME -> recipeId(message).ifPresent(recipeDetailCache::evict);
+                case AuthorPageCache.CACHE_NAME -> authorPageCache.invalidate(message.key());
+                case RECIPE_INDEX -> recipeId(message).ifPresent(this::reindex);
+                case ALL_CACHES -> {
+                    recipePageCache.bumpGeneration();
+                    recipeDetailCache.invalidateAll();
+                    authorPageCache.invalidateAll();
+                }
+                default -> log.warn("Ignoring invalidation for unknown cache {}", message.cache());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        reindexer.shutdown();
+    }
+
+    //PRIVATE
+    private String selfId() {
+        Registration self = registration.getIfAvailable();
+        return self == null ? null : self.getInstanceId();
+    }
+
+    private Optional<Long> recipeId(CacheInvalidationMessage message) {
+        try {
+            return Optional.of(Long.valueOf(message.key()));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring {} invalidation with malformed recipe id '{}'", message.cache(), message.key());
+            return Optional.empty();
+        }
+    }
+
+    private void reindex(Long recipeId) {
+        reindexer.execute(() -> {
+            try {
+                recipeSearchIndexer.reindex(recipeId);
+            } catch (RuntimeException e) {
+                log.warn("Reindexing recipe {} for a peer failed, leaving it to the catch-up sweep: {}", recipeId, e.getMessage());
+            }
+        });
+    }
+
+    private void post(ServiceInstance peer, List<CacheInvalidationMessage> messages) {
+        restClient.post()
+                .uri(peer.getUri() + contextPath + INVALIDATE_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(TOKEN_HEADER, token)
+                .body(messages)
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    /*
+    One peer's outbox.
+        at most one drain runs per peer, so messages reach it in order and it never holds more than one pool thread;
+        while a drain is suspended or backing off it still counts as running, new messages only queue up behind it
+     */
+    private final class Peer {
+        private final ServiceInstance instance;
+        //guarded by this, a drain reads the head and only removes it once it is delivered
+        private final Deque<List<CacheInvalidationMessage>> queue = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private int attempt;
+
+        private Peer(ServiceInstance instance) {
+            this.instance = instance;
+        }
+
+        private void enqueue(List<CacheInvalidationMessage> messages) {
+            synchronized (this) {
+                if (queue.size() < queueCapacity) {
+                    queue.addLast(messages);
+                } else {
+                    //flushing everything covers whatever was queued, a fresh list so an in-flight flush can not remove it
+                    collapsed.increment(queue.size() + 1);
+                    queue.clear();
+                    queue.addLast(List.of(new CacheInvalidationMessage(ALL_CACHES, null)));
+                }
+            }
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            List<CacheInvalidationMessage> messages;
+            //a peer gone from Eureka is no longer in the map, its queue goes with it
+            while (peers.get(instance.getInstanceId()) == this && (messages = head()) != null) {
+                try {
+                    post(instance, messages);
+                    delivered.increment();
+                } catch (HttpClientErrorException e) {
+                    //the peer refused the batch itself, sending it again can not succeed
+                    failed.increment();
+                    log.warn("Peer {} rejected {} invalidations: {}", instance.getInstanceId(), messages.size(), e.getMessage());
+                } catch (ResourceAccessException e) {
+                    suspend(e);
+                    return;
+                } catch (RuntimeException e) {
+                    if (++attempt < maxAttempts) {
+                        long backoff = initialBackoff.toMillis() << (attempt - 1);
+                        log.debug("Invalidation of {} failed, retrying in {} ms", instance.getInstanceId(), backoff);
+                        //still draining, the retry picks the same messages up again
+                        executor.schedule(this::drain, backoff, TimeUnit.MILLISECONDS);
+                        return;
+                    }
+                    suspend(e);
+                    return;
+                }
+                attempt = 0;
+                removeHead(messages);
+            }
+            draining.set(false);
+            //a message offered after the last peek but before the flag cleared would otherwise wait for the next one
+            if (peers.get(instance.getInstanceId()) == this && head() != null && draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        //a timeout, refused connection or repeated failure means the peer is down or overloaded, its queue waits for it
+        private void suspend(RuntimeException e) {
+            attempt = 0;
+            failed.increment();
+            log.warn("Peer {} did not take invalidations within {}, retrying its queue in {}: {}",
+                    instance.getInstanceId(), timeout, suspendFor, e.getMessage());
+            executor.schedule(this::drain, suspendFor.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized List<CacheInvalidationMessage> head() {
+            return queue.peekFirst();
+        }
+
+        //a collapse may have replaced the head while it was being posted, that flush must still be sent
+        private synchronized void removeHead(List<CacheInvalidationMessage> sent) {
+            if (queue.peekFirst() == sent) {
+                queue.removeFirst();
+            }
+        }
+    }
+}
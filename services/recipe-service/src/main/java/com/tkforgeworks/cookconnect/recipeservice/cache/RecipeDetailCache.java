@@ -0,0 +1,94 @@
+package com.tkforgeworks.cookconnect.recipeservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/*
+Per-recipe cache of mapped RecipeDto's.
+    every recipe has a generation stamped from one instance-wide clock, like AuthorPageCache; an eviction moves it
+    on, and a load only lands in the cache if the generation it read before loading is still current, so a load
+    that started before a write can never store what it read once the write has evicted the recipe.
+    concurrent misses of one generation share a single load, callers arriving after an eviction start their own
+ */
+@Slf4j
+@Component
+public class RecipeDetailCache {
+    public static final String CACHE_NAME = "recipeDetails";
+    private final Cache<Long, CachedRecipe> cache;
+    private final Cache<Long, Long> generations;
+    private final SingleFlight<Load, CachedRecipe> loads;
+    private final AtomicLong clock = new AtomicLong();
+
+    public RecipeDetailCache(MeterRegistry meterRegistry,
+                             @Value("${tkforgeworks.cache.recipe-details.max-size:10000}") long maxSize,
+                             @Value("${tkforgeworks.cache.recipe-details.ttl:PT10M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.loads = new SingleFlight<>(CACHE_NAME, meterRegistry);
+    }
+
+    public CachedRecipe get(Long recipeId) {
+        return cache.getIfPresent(recipeId);
+    }
+
+    public CachedRecipe get(Long recipeId, Function<Long, CachedRecipe> loader) {
+        CachedRecipe cached = cache.getIfPresent(recipeId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = generation(recipeId);
+        return loads.execute(new Load(recipeId, generation), () -> {
+            CachedRecipe loaded = loader.apply(recipeId);
+            put(recipeId, loaded, generation);
+            return loaded;
+        });
+    }
+
+    //read before loading what is put, an evicted stamp restarts at the clock, past every stamp issued before
+    public long generation(Long recipeId) {
+        return generations.get(recipeId, id -> clock.get());
+    }
+
+    //dropped when the recipe was evicted after the generation was read, checked under the entry's lock
+    public void put(Long recipeId, CachedRecipe cachedRecipe, long generation) {
+        cache.asMap().compute(recipeId, (id, current) -> {
+            if (generation(id) != generation) {
+                return current;
+            }
+            return cachedRecipe.isOlderThan(current) ? current : cachedRecipe;
+        });
+    }
+
+    public void evict(Long recipeId) {
+        log.debug("Evicting recipe {} from {}", recipeId, CACHE_NAME);
+        //generation first, a load finishing between the two steps then finds itself outdated
+        generations.put(recipeId, clock.incrementAndGet());
+        cache.invalidate(recipeId);
+    }
+
+    //the clock moves first, every stamp issued before is behind it once the generations are dropped
+    public void invalidateAll() {
+        log.debug("Evicting every recipe from {}", CACHE_NAME);
+        clock.incrementAndGet();
+        generations.invalidateAll();
+        cache.invalidateAll();
+    }
+
+    private record Load(Long recipeId, long generation) {}
+}
@@ -0,0 +1,157 @@
+package com.tkforgeworks.cookconnect.recipeservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipeChangedEvent;
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipesImportedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/*
+Pre-serialized JSON for the paged recipe listing, bounded by total bytes.
+    keys start with the current generation; any committed recipe write bumps the generation,
+    which orphans every older entry at once (they age out by size/ttl) without enumerating keys.
+    the generation is read before the page is loaded, so a load racing a write is stored
+    under the old generation and can never be served afterwards.
+    concurrent misses share one load; a hit older than refresh-ahead is reloaded in the background
+    so hot pages are replaced before they expire instead of missing all at once; each key has at most one
+    refresh queued and the queue is bounded, a page that finds it full is refreshed by a later hit or reloaded on expiry
+ */
+@Slf4j
+@Component
+public class RecipePageCache {
+    public static final String CACHE_NAME = "recipePages";
+    private final Cache<String, CachedPage> cache;
+    private final SingleFlight<String, byte[]> loads;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Set<String> pendingRefreshes = ConcurrentHashMap.newKeySet();
+    private final Duration refreshAhead;
+    private final AtomicLong generation = new AtomicLong();
+    private final String instanceToken = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+
+    public RecipePageCache(MeterRegistry meterRegistry,
+                           @Value("${tkforgeworks.cache.recipe-pages.max-bytes:33554432}") long maxBytes,
+                           @Value("${tkforgeworks.cache.recipe-pages.ttl:PT5M}") Duration ttl,
+                           @Value("${tkforgeworks.cache.recipe-pages.refresh-ahead:PT4M}") Duration refreshAhead,
+                           @Value("${tkforgeworks.cache.recipe-pages.refresh-queue-capacity:100}") int refreshQueueCapacity) {
+        this.refreshAhead = refreshAhead;
+        this.loads = new SingleFlight<>(CACHE_NAME, meterRegistry);
+        this.refreshExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(refreshQueueCapacity),
+                Thread.ofPlatform().name("recipe-page-refresh").daemon(true).factory());
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedPage value) -> key.length() + value.json().length)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("cache.weight", cache, c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+                .tag("cache", CACHE_NAME)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("cache.generation", generation, AtomicLong::get)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public String key(String query) {
+        return generation.get() + ":" + query;
+    }
+
+    public byte[] get(String key, Supplier<byte[]> loader) {
+        CachedPage cached = cache.getIfPresent(key);
+        if (cached == null) {
+            return load(key, loader);
+        }
+        if (!refreshAhead.isZero() && cached.isOlderThan(refreshAhead) && !loads.isInFlight(key)
+                && pendingRefreshes.add(key)) {
+            try {
+                refreshExecutor.execute(() -> refresh(key, loader));
+            } catch (RejectedExecutionException e) {
+                pendingRefreshes.remove(key);
+                log.debug("Refresh-ahead queue full, {} keeps serving its current entry", key);
+            }
+        }
+        return cached.json();
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /*
+    Identifies the listing content this instance currently serves, used as the browse ETag.
+        generations count from zero on every instance, the instance token keeps a validator issued by
+        one instance from ever matching another's equal generation behind the load balancer
+     */
+    public String version() {
+        return instanceToken + "-" + generation.get();
+    }
+
+    public void bumpGeneration() {
+        log.debug("Bumping {} generation to {}", CACHE_NAME, generation.incrementAndGet());
+    }
+
+    @TransactionalEventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        bumpGeneration();
+    }
+
+    @TransactionalEventListener
+    public void onRecipesImported(RecipesImportedEvent event) {
+        bumpGeneration();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    //PRIVATE
+    private byte[] load(String key, Supplier<byte[]> loader) {
+        return loads.execute(key, () -> {
+            byte[] json = loader.get();
+            cache.put(key, new CachedPage(json, System.nanoTime()));
+            return json;
+        });
+    }
+
+    private void refresh(String key, Supplier<byte[]> loader) {
+        try {
+            //a miss or an earlier refresh may have reloaded the page while this one was queued
+            CachedPage cached = cache.getIfPresent(key);
+            if (cached == null || cached.isOlderThan(refreshAhead)) {
+                load(key, loader);
+            }
+        } catch (RuntimeException e) {
+            //the current entry keeps serving until it expires
+            log.warn("Refresh-ahead of {} failed: {}", key, e.getMessage());
+        } finally {
+            pendingRefreshes.remove(key);
+        }
+    }
+
+    private record CachedPage(byte[] json, long loadedAtNanos) {
+        boolean isOlderThan(Duration age) {
+            return System.nanoTime() - loadedAtNanos > age.toNanos();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.tkforgeworks.cookconnect.recipeservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*
+Coalesces concurrent loads of the same key into one execution.
+    the first caller runs the loader, callers arriving while it is in flight wait for and share its result
+    (or its exception); nothing is retained once the load finishes, caching stays with the caller
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder("cache.loads")
+                .tag("cache", name)
+                .tag("outcome", "executed")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("cache.loads")
+                .tag("cache", name)
+                .tag("outcome", "coalesced")
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executed.increment();
+        try {
+            V value = loader.get();
+            load.complete(value);
+            return value;
+        } catch (Throwable t) {
+            //waiters must be released whatever the loader throws, an Error included
+            load.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    public boolean isInFlight(K key) {
+        return inFlight.containsKey(key);
+    }
+
+    //PRIVATE
+    private V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
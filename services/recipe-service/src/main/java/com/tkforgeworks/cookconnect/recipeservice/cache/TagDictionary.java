@@ -0,0 +1,59 @@
+package com.tkforgeworks.cookconnect.recipeservice.cache;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.Tag;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Read-mostly name -> Tag near-cache.
+    the tag vocabulary is small and tags are never deleted, so the whole table is held in memory
+    and entries are only ever added; values are detached, read-only Tag rows
+ */
+@Component
+public class TagDictionary {
+    public static final String CACHE_NAME = "tagDictionary";
+    private final Map<String, Tag> tags = new ConcurrentHashMap<>();
+
+    public TagDictionary(MeterRegistry meterRegistry) {
+        Gauge.builder("cache.size", tags, Map::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public Map<String, Tag> getAll(Collection<String> normalizedNames) {
+        Map<String, Tag> found = new HashMap<>();
+        for (String name : normalizedNames) {
+            Tag tag = tags.get(name);
+            if (tag != null) {
+                found.put(name, tag);
+            }
+        }
+        return found;
+    }
+
+    public void putAll(Collection<Tag> loadedTags) {
+        for (Tag tag : loadedTags) {
+            tags.putIfAbsent(normalize(tag.getName()), tag);
+        }
+    }
+
+    //keyed by the names that were looked up, a spelling the column collation folds onto another row finds it here next time
+    public void putAll(Map<String, Tag> tagsByName) {
+        tagsByName.forEach(tags::putIfAbsent);
+    }
+
+    public int size() {
+        return tags.size();
+    }
+}
@@ -0,0 +1,60 @@
+package com.tkforgeworks.cookconnect.recipeservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tkforgeworks.cookconnect.recipeservice.common.dto.UserServiceResponseDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+Local copy of user-service summaries keyed by cc user id.
+    entries are fresh for ttl (negative-ttl for ids user-service does not know) and are kept up to
+    max-stale so they can still be served while user-service is failing or its circuit is open
+ */
+@Component
+public class UserSummaryCache {
+    public static final String CACHE_NAME = "userSummaries";
+    private final Cache<String, CachedUser> cache;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+
+    public UserSummaryCache(MeterRegistry meterRegistry,
+                            @Value("${tkforgeworks.cache.user-summaries.max-size:20000}") long maxSize,
+                            @Value("${tkforgeworks.cache.user-summaries.ttl:PT10M}") Duration ttl,
+                            @Value("${tkforgeworks.cache.user-summaries.negative-ttl:PT1M}") Duration negativeTtl,
+                            @Value("${tkforgeworks.cache.user-summaries.max-stale:PT1H}") Duration maxStale) {
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxStale)
+                .build();
+        Gauge.builder("cache.size", cache, Cache::estimatedSize)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public CachedUser getFresh(String ccUserId) {
+        CachedUser cached = cache.getIfPresent(ccUserId);
+        if (cached == null || !cached.isYoungerThan(cached.isNotFound() ? negativeTtl : ttl)) {
+            return null;
+        }
+        return cached;
+    }
+
+    public CachedUser getStale(String ccUserId) {
+        return cache.getIfPresent(ccUserId);
+    }
+
+    public void putFound(String ccUserId, UserServiceResponseDto user) {
+        cache.put(ccUserId, new CachedUser(user, System.nanoTime()));
+    }
+
+    public void putNotFound(String ccUserId) {
+        cache.put(ccUserId, new CachedUser(null, System.nanoTime()));
+    }
+}
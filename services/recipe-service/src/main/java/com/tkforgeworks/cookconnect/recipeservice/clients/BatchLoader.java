@@ -0,0 +1,138 @@
+package com.tkforgeworks.cookconnect.recipeservice.clients;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/*
+Collects concurrent single-key loads into one batched call.
+    the first caller opens a batch and waits out the window, callers arriving meanwhile join it;
+    whoever closes the batch (the opener once the window passes, or the caller that fills it) runs the
+    batch function on its own thread so the caller's request context travels with the call.
+    keys missing from the result resolve to null, a failed call fails every waiter.
+    recipe-service and social-service each keep a copy, they share no code module and ship as separate images;
+    the two files may differ only in their package line, recipe-service's BatchLoaderTest checks it
+ */
+@Slf4j
+public class BatchLoader<K, V> {
+    private final Function<Collection<K>, Map<K, V>> batchFunction;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Object lock = new Object();
+    private final Counter keys;
+    private final Counter calls;
+    private final DistributionSummary batchSize;
+    private Batch<K, V> open;
+
+    public BatchLoader(String name,
+                       Function<Collection<K>, Map<K, V>> batchFunction,
+                       Duration window,
+                       int maxBatchSize,
+                       MeterRegistry meterRegistry) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.batchFunction = batchFunction;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.keys = Counter.builder("batch.loader.keys")
+                .tag("loader", name)
+                .register(meterRegistry);
+        this.calls = Counter.builder("batch.loader.calls")
+                .tag("loader", name)
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("batch.loader.size")
+                .tag("loader", name)
+                .register(meterRegistry);
+    }
+
+    public V load(K key) {
+        keys.increment();
+        Batch<K, V> batch;
+        CompletableFuture<V> result;
+        boolean opener = false;
+        boolean filled = false;
+        synchronized (lock) {
+            if (open == null) {
+                open = new Batch<>();
+                opener = true;
+            }
+            batch = open;
+            result = batch.waiters.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (batch.waiters.size() >= maxBatchSize) {
+                open = null;
+                filled = true;
+            }
+        }
+
+        if (filled) {
+            dispatch(batch);
+        } else if (opener) {
+            waitOutWindow();
+            if (close(batch)) {
+                dispatch(batch);
+            }
+        }
+        return await(result);
+    }
+
+    //PRIVATE
+    private void waitOutWindow() {
+        try {
+            Thread.sleep(Duration.ofNanos(windowNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean close(Batch<K, V> batch) {
+        synchronized (lock) {
+            if (open != batch) {
+                return false;
+            }
+            open = null;
+            return true;
+        }
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        calls.increment();
+        batchSize.record(batch.waiters.size());
+        try {
+            Map<K, V> loaded = batchFunction.apply(List.copyOf(batch.waiters.keySet()));
+            batch.waiters.forEach((key, waiter) -> waiter.complete(loaded.get(key)));
+        } catch (Throwable t) {
+            //the dispatching caller is one of the waiters, it gets the failure back from await like the rest
+            log.warn("Batch load of {} keys failed: {}", batch.waiters.size(), t.getMessage());
+            batch.waiters.values().forEach(waiter -> waiter.completeExceptionally(t));
+        }
+    }
+
+    private V await(CompletableFuture<V> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Batch<K, V> {
+        private final Map<K, CompletableFuture<V>> waiters = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,17 @@
+package com.tkforgeworks.cookconnect.recipeservice.clients;
+
+import com.tkforgeworks.cookconnect.recipeservice.config.FeignClientConfig;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.util.List;
+
+@FeignClient(
+        name = "social-service",
+        configuration = FeignClientConfig.class
+)
+public interface SocialServiceFeignClient {
+    @GetMapping("/api/v1/internal/{userId}/following")
+    List<String> getFollowingIds(@PathVariable("userId") String userId);
+}
@@ -6,6 +6,11 @@ import com.tkforgeworks.cookconnect.recipeservice.config.FeignClientConfig;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(
         name = "user-service",
@@ -14,4 +19,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 public interface UserServiceFeignClient {
     @GetMapping("/api/v1/internal/{userId}")
     UserServiceResponseDto getUserById(@PathVariable("userId") String userId);
+
+    @PostMapping("/api/v1/internal/batch")
+    List<UserServiceResponseDto> getUsersByIds(@RequestBody Collection<String> userIds);
 }
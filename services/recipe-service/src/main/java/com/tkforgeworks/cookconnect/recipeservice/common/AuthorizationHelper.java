@@ -0,0 +1,33 @@
+package com.tkforgeworks.cookconnect.recipeservice.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class AuthorizationHelper {
+    public static final String ADMIN_ROLE = "ROLE_cookconnect_admin";
+
+    public boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(ADMIN_ROLE::equals);
+    }
+
+    //admins can act on any user's resources, everyone else only on their own
+    public boolean canAccessUserResource(String ownerUserId) {
+        if (isAdmin()) {
+            return true;
+        }
+        String userId = UserContextHolder.getUserContext().getUserId();
+        boolean authorized = ownerUserId != null && ownerUserId.equals(userId);
+        if (!authorized) {
+            log.warn("Access denied. Owner userId: {}, Authenticated userId: {}", ownerUserId, userId);
+        }
+        return authorized;
+    }
+}
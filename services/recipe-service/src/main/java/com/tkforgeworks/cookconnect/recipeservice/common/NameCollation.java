@@ -0,0 +1,30 @@
+package com.tkforgeworks.cookconnect.recipeservice.common;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Locale;
+
+/*
+Java stand-in for the ingredient and tag name columns' utf8mb4_unicode_ci collation.
+    both are UCA comparisons at primary strength: case and accents are ignored and ß expands to ss, so a row
+    returned by an IN query pairs with the requested name that found it. a name the two disagree on is not
+    paired, its insert then hits the unique key and is resolved one name at a time
+ */
+public final class NameCollation {
+    private static final Collator COLLATOR = primaryCollator();
+
+    private NameCollation() {
+    }
+
+    //Collator instances are not thread-safe
+    public static synchronized CollationKey key(String name) {
+        return COLLATOR.getCollationKey(name.trim());
+    }
+
+    private static Collator primaryCollator() {
+        Collator collator = Collator.getInstance(Locale.ROOT);
+        collator.setStrength(Collator.PRIMARY);
+        collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+        return collator;
+    }
+}
@@ -0,0 +1,10 @@
+package com.tkforgeworks.cookconnect.recipeservice.common;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+
+/*
+Published inside the transaction that creates or changes a recipe.
+    listeners use @TransactionalEventListener so they only see changes that actually committed;
+    the recipe carries its initialized ingredient, instruction and tag lists
+ */
+public record RecipeChangedEvent(Recipe recipe) {}
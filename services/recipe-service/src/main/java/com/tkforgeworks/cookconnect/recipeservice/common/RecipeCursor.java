@@ -0,0 +1,36 @@
+package com.tkforgeworks.cookconnect.recipeservice.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/*
+Opaque keyset position for recipe browsing.
+    encodes the (createdAt, id) pair of the last row on a page so the next page can seek
+    straight to it through idx_recipe_created_at instead of paying an OFFSET scan
+ */
+public record RecipeCursor(LocalDateTime createdAt, Long id) {
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RecipeCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            if (split < 0) {
+                throw new IllegalArgumentException(String.format("Invalid cursor %s", cursor));
+            }
+            return new RecipeCursor(
+                    LocalDateTime.parse(raw.substring(0, split)),
+                    Long.parseLong(raw.substring(split + 1))
+            );
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid cursor %s", cursor));
+        }
+    }
+}
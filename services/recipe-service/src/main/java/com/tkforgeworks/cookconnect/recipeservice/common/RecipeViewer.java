@@ -0,0 +1,37 @@
+package com.tkforgeworks.cookconnect.recipeservice.common;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+
+import java.util.Collection;
+import java.util.Set;
+
+/*
+The caller a recipe listing is filtered for.
+    a recipe is listed when it is PUBLIC, belongs to the caller, or is PROTECTED and its author is followed
+    by the caller. PRIVATE and GHOST recipes are only ever listed for their author
+ */
+public record RecipeViewer(String userId, Set<String> following) {
+    //no author has an empty id, keeps "in :following" valid when the caller follows nobody
+    private static final Set<String> NO_AUTHORS = Set.of("");
+
+    public static RecipeViewer anonymous() {
+        return new RecipeViewer(null, Set.of());
+    }
+
+    public boolean isAnonymous() {
+        return userId == null || userId.isEmpty();
+    }
+
+    public boolean isAuthor(String createdBy) {
+        return !isAnonymous() && userId.equals(createdBy);
+    }
+
+    public boolean canList(String createdBy, VisibilitySettings visibility) {
+        return visibility == null || visibility == VisibilitySettings.PUBLIC || isAuthor(createdBy)
+                || (visibility == VisibilitySettings.PROTECTED && following.contains(createdBy));
+    }
+
+    public Collection<String> followingOrNone() {
+        return following.isEmpty() ? NO_AUTHORS : following;
+    }
+}
@@ -0,0 +1,12 @@
+package com.tkforgeworks.cookconnect.recipeservice.common;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+
+import java.util.List;
+
+/*
+Published once per committed import chunk instead of one RecipeChangedEvent per recipe.
+    lets listeners bump a generation or broadcast to peers once for the whole chunk;
+    the recipes carry their initialized lists, same as RecipeChangedEvent
+ */
+public record RecipesImportedEvent(List<Recipe> recipes) {}
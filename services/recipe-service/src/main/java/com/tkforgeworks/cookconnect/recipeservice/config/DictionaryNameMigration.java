@@ -0,0 +1,100 @@
+package com.tkforgeworks.cookconnect.recipeservice.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/*
+Merges ingredient and tag rows whose names the database considers equal, then adds the unique key on name.
+    runs before the EntityManagerFactory is built (see PersistenceConfig), under MigrationLock, and is idempotent: duplicates are
+    grouped by the column's own collation (so case, accent and ß variants fold together), list items are
+    repointed to the oldest row of each group and the newer rows deleted; schema update could never create
+    the key while such rows existed
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DictionaryNameMigration implements InitializingBean {
+    //must match the @UniqueConstraint declarations on Ingredient and Tag
+    private static final List<DictionaryTable> TABLES = List.of(
+            new DictionaryTable("ingredient", "ingredient_list_item", "ingredient_id", null, "uk_ingredient_name"),
+            new DictionaryTable("tag", "tag_list_item", "tag_id", "tag_list_id", "uk_tag_name")
+    );
+    private final MigrationLock migrationLock;
+
+    @Override
+    public void afterPropertiesSet() {
+        migrationLock.run(jdbcTemplate -> TABLES.forEach(table -> migrate(jdbcTemplate, table)));
+    }
+
+    private void migrate(JdbcTemplate jdbcTemplate, DictionaryTable table) {
+        List<IndexColumn> indexes = indexes(jdbcTemplate, table.name());
+        if (indexes.isEmpty()) {
+            return;
+        }
+        if (indexes.stream().anyMatch(index -> index.unique() && index.column().equalsIgnoreCase("name")
+                && indexes.stream().filter(other -> other.name().equals(index.name())).count() == 1)) {
+            return;
+        }
+        mergeDuplicates(jdbcTemplate, table);
+        jdbcTemplate.execute(String.format("alter table %s add constraint %s unique (name)", table.name(), table.uniqueKey()));
+        log.info("Added unique key {} on {}.name", table.uniqueKey(), table.name());
+    }
+
+    private void mergeDuplicates(JdbcTemplate jdbcTemplate, DictionaryTable table) {
+        List<Map<String, Object>> duplicates = jdbcTemplate.queryForList(String.format(
+                "select d.id as duplicate_id, k.keep_id as keep_id from %1$s d "
+                        + "join (select name, min(id) as keep_id from %1$s group by name having count(*) > 1) k "
+                        + "on d.name = k.name and d.id <> k.keep_id", table.name()));
+        for (Map<String, Object> duplicate : duplicates) {
+            long duplicateId = ((Number) duplicate.get("duplicate_id")).longValue();
+            long keepId = ((Number) duplicate.get("keep_id")).longValue();
+            if (table.listColumn() != null) {
+                //a list holding both spellings keeps a single item
+                jdbcTemplate.update(String.format(
+                        "delete from %1$s where %2$s = ? and %3$s in (select %3$s from (select %3$s from %1$s where %2$s = ?) kept)",
+                        table.itemTable(), table.itemColumn(), table.listColumn()), duplicateId, keepId);
+            }
+            jdbcTemplate.update(String.format("update %s set %s = ? where %s = ?",
+                    table.itemTable(), table.itemColumn(), table.itemColumn()), keepId, duplicateId);
+            jdbcTemplate.update(String.format("delete from %s where id = ?", table.name()), duplicateId);
+        }
+        if (!duplicates.isEmpty()) {
+            log.info("Merged {} duplicate {} rows into the oldest row of each name", duplicates.size(), table.name());
+        }
+    }
+
+    private List<IndexColumn> indexes(JdbcTemplate jdbcTemplate, String tableName) {
+        return jdbcTemplate.execute((ConnectionCallback<List<IndexColumn>>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            List<IndexColumn> indexes = new ArrayList<>();
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, tableName, new String[]{"TABLE"})) {
+                if (!tables.next()) {
+                    return indexes;
+                }
+            }
+            try (ResultSet rows = metaData.getIndexInfo(connection.getCatalog(), null, tableName, false, true)) {
+                while (rows.next()) {
+                    if (rows.getString("INDEX_NAME") != null && rows.getString("COLUMN_NAME") != null) {
+                        indexes.add(new IndexColumn(rows.getString("INDEX_NAME"), rows.getString("COLUMN_NAME"), !rows.getBoolean("NON_UNIQUE")));
+                    }
+                }
+            }
+            return indexes;
+        });
+    }
+
+    //listColumn is set where a list may hold each row at most once
+    private record DictionaryTable(String name, String itemTable, String itemColumn, String listColumn, String uniqueKey) {}
+
+    private record IndexColumn(String name, String column, boolean unique) {}
+}
@@ -0,0 +1,71 @@
+package com.tkforgeworks.cookconnect.recipeservice.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Map;
+
+/*
+Moves existing databases from IDENTITY keys to the pooled, table-emulated sequences the entities now use.
+    runs before the EntityManagerFactory is built (see PersistenceConfig) under MigrationLock, so replicas starting
+    together never both seed a sequence, and is idempotent: each <table>_seq table is created and seeded if absent,
+    then raised above the highest id already in use so the first block handed out by the pooled optimizer can never collide with rows written under IDENTITY
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdSequenceMigration implements InitializingBean {
+    //must match allocationSize on the entity @SequenceGenerator declarations
+    public static final int ALLOCATION_SIZE = 50;
+    private static final Map<String, String> SEQUENCE_TABLES = Map.ofEntries(
+            Map.entry("recipe", "recipe_seq"),
+            Map.entry("recipe_note", "recipe_note_seq"),
+            Map.entry("recipe_version", "recipe_version_seq"),
+            Map.entry("ingredient", "ingredient_seq"),
+            Map.entry("ingredient_list", "ingredient_list_seq"),
+            Map.entry("ingredient_list_item", "ingredient_list_item_seq"),
+            Map.entry("instruction", "instruction_seq"),
+            Map.entry("instruction_list", "instruction_list_seq"),
+            Map.entry("instruction_list_item", "instruction_list_item_seq"),
+            Map.entry("tag", "tag_seq"),
+            Map.entry("tag_list", "tag_list_seq"),
+            Map.entry("tag_list_item", "tag_list_item_seq")
+    );
+    private final MigrationLock migrationLock;
+
+    @Override
+    public void afterPropertiesSet() {
+        migrationLock.run(jdbcTemplate -> SEQUENCE_TABLES.forEach((entityTable, sequenceTable) ->
+                migrate(jdbcTemplate, entityTable, sequenceTable)));
+    }
+
+    private void migrate(JdbcTemplate jdbcTemplate, String entityTable, String sequenceTable) {
+        jdbcTemplate.execute(String.format("create table if not exists %s (next_val bigint)", sequenceTable));
+        jdbcTemplate.update(String.format(
+                "insert into %1$s (next_val) select 1 from dual where not exists (select 1 from %1$s)", sequenceTable));
+
+        if (!tableExists(jdbcTemplate, entityTable)) {
+            return;
+        }
+        int raised = jdbcTemplate.update(String.format(
+                "update %s set next_val = greatest(next_val, (select coalesce(max(id), 0) + %d from %s))",
+                sequenceTable, ALLOCATION_SIZE + 1, entityTable));
+        log.debug("Id sequence {} checked against {} ({} rows updated)", sequenceTable, entityTable, raised);
+    }
+
+    private boolean tableExists(JdbcTemplate jdbcTemplate, String tableName) {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, tableName, new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
@@ -0,0 +1,49 @@
+package com.tkforgeworks.cookconnect.recipeservice.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/*
+Serializes the startup migrations across replicas with a MySQL named lock.
+    GET_LOCK belongs to the session that took it, so a migration runs on that one connection, handed to it as a
+    JdbcTemplate; replicas starting together wait for each other and the later ones find the work already done.
+    databases without named locks (H2 in tests) run the migration unlocked
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MigrationLock {
+    private static final String LOCK_NAME = "recipe-service.migrations";
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${tkforgeworks.migrations.lock-timeout:PT5M}")
+    private Duration lockTimeout;
+
+    public void run(Consumer<JdbcTemplate> migration) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            JdbcTemplate locked = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            if (!"MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+                migration.accept(locked);
+                return null;
+            }
+            Integer acquired = locked.queryForObject("select get_lock(?, ?)", Integer.class, LOCK_NAME, lockTimeout.toSeconds());
+            if (!Integer.valueOf(1).equals(acquired)) {
+                throw new IllegalStateException(String.format("Timed out after %s waiting for another instance's migrations", lockTimeout));
+            }
+            try {
+                migration.accept(locked);
+            } finally {
+                locked.queryForObject("select release_lock(?)", Integer.class, LOCK_NAME);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package com.tkforgeworks.cookconnect.recipeservice.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PersistenceConfig {
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor idSequenceMigrationDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor(IdSequenceMigration.class, SharedListMigration.class,
+                VisibilityBackfillMigration.class, DictionaryNameMigration.class);
+    }
+}
@@ -31,6 +31,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorizeRequests -> authorizeRequests
                         .requestMatchers("/simple").permitAll()
                         .requestMatchers("/detailed").permitAll()
+                        //peer calls carry the shared invalidation token instead of a user JWT
+                        .requestMatchers("/internal/cache/**").permitAll()
                         .anyRequest()
                         .authenticated());
         http
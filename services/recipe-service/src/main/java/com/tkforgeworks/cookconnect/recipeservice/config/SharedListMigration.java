@@ -0,0 +1,79 @@
+package com.tkforgeworks.cookconnect.recipeservice.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/*
+Lets forks share their parent's lists by dropping the unique keys the old @OneToOne mapping put on the recipe FKs.
+    runs before the EntityManagerFactory is built (see PersistenceConfig) and is idempotent: the plain index the
+    entity now declares is created first, because MySQL will not drop the only index backing a foreign key
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SharedListMigration implements InitializingBean {
+    private static final String RECIPE_TABLE = "recipe";
+    //must match the @Index declarations on Recipe
+    private static final Map<String, String> LIST_COLUMNS = Map.of(
+            "ingredient_list_id", "idx_recipe_ingredient_list",
+            "instruction_list_id", "idx_recipe_instruction_list",
+            "tag_list_id", "idx_recipe_tag_list"
+    );
+    private final MigrationLock migrationLock;
+
+    @Override
+    public void afterPropertiesSet() {
+        migrationLock.run(jdbcTemplate -> {
+            List<IndexColumn> indexes = recipeIndexes(jdbcTemplate);
+            if (indexes.isEmpty()) {
+                return;
+            }
+            LIST_COLUMNS.forEach((column, plainIndex) -> migrate(jdbcTemplate, indexes, column, plainIndex));
+        });
+    }
+
+    private void migrate(JdbcTemplate jdbcTemplate, List<IndexColumn> indexes, String column, String plainIndex) {
+        List<String> uniqueKeys = indexes.stream()
+                .filter(index -> index.unique() && index.column().equalsIgnoreCase(column) && !index.name().equalsIgnoreCase("PRIMARY"))
+                .map(IndexColumn::name)
+                .filter(name -> indexes.stream().filter(other -> other.name().equals(name)).count() == 1)
+                .toList();
+        if (uniqueKeys.isEmpty()) {
+            return;
+        }
+        if (indexes.stream().noneMatch(index -> index.name().equalsIgnoreCase(plainIndex))) {
+            jdbcTemplate.execute(String.format("create index %s on %s (%s)", plainIndex, RECIPE_TABLE, column));
+        }
+        for (String uniqueKey : uniqueKeys) {
+            jdbcTemplate.execute(String.format("alter table %s drop index %s", RECIPE_TABLE, uniqueKey));
+            log.info("Dropped unique key {} on {}.{} so lists can be shared between forks", uniqueKey, RECIPE_TABLE, column);
+        }
+    }
+
+    private List<IndexColumn> recipeIndexes(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.execute((ConnectionCallback<List<IndexColumn>>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            List<IndexColumn> indexes = new ArrayList<>();
+            try (ResultSet rows = metaData.getIndexInfo(connection.getCatalog(), null, RECIPE_TABLE, false, true)) {
+                while (rows.next()) {
+                    if (rows.getString("INDEX_NAME") != null && rows.getString("COLUMN_NAME") != null) {
+                        indexes.add(new IndexColumn(rows.getString("INDEX_NAME"), rows.getString("COLUMN_NAME"), !rows.getBoolean("NON_UNIQUE")));
+                    }
+                }
+            }
+            return indexes;
+        });
+    }
+
+    private record IndexColumn(String name, String column, boolean unique) {}
+}
@@ -0,0 +1,50 @@
+package com.tkforgeworks.cookconnect.recipeservice.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+
+/*
+Gives recipes written without a visibility the PUBLIC they were always listed with.
+    visibility is filtered in SQL now and a NULL never equals PUBLIC, so these rows would silently drop out
+    of every listing. runs before the EntityManagerFactory is built (see PersistenceConfig) and is idempotent;
+    the read model's copied visibility column is backfilled alongside
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VisibilityBackfillMigration implements InitializingBean {
+    private final MigrationLock migrationLock;
+
+    @Override
+    public void afterPropertiesSet() {
+        migrationLock.run(jdbcTemplate -> {
+            backfill(jdbcTemplate, "recipe", "recipe_visibility_settings");
+            backfill(jdbcTemplate, "recipe_read_model", "visibility");
+        });
+    }
+
+    private void backfill(JdbcTemplate jdbcTemplate, String table, String column) {
+        if (!columnExists(jdbcTemplate, table, column)) {
+            return;
+        }
+        int updated = jdbcTemplate.update(String.format("update %s set %s = 'PUBLIC' where %s is null", table, column, column));
+        if (updated > 0) {
+            log.info("Backfilled {} {} rows without a visibility as PUBLIC", updated, table);
+        }
+    }
+
+    private boolean columnExists(JdbcTemplate jdbcTemplate, String table, String column) {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), null, table, column)) {
+                return columns.next();
+            }
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
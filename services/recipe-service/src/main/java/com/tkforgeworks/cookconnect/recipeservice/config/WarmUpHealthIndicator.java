@@ -0,0 +1,46 @@
+package com.tkforgeworks.cookconnect.recipeservice.config;
+
+import com.tkforgeworks.cookconnect.recipeservice.cache.CacheWarmer;
+import com.tkforgeworks.cookconnect.recipeservice.search.RecipeSearchIndex;
+import com.tkforgeworks.cookconnect.recipeservice.search.RecipeSearchIndexer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/*
+Reports OUT_OF_SERVICE until the search index is built and cache warm-up has finished.
+    with eureka.client.healthcheck.enabled the instance is registered with this status,
+    so the gateway only routes to it once it is warm; a search rebuild that fails or outruns
+    its budget stops holding the instance back and keeps going in the background
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmUpHealthIndicator implements HealthIndicator {
+    private final CacheWarmer cacheWarmer;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final RecipeSearchIndexer recipeSearchIndexer;
+
+    @Override
+    public Health health() {
+        boolean searchSettled = recipeSearchIndex.isReady() || recipeSearchIndexer.isRebuildOverdue();
+        Health.Builder builder = cacheWarmer.isFinished() && searchSettled
+                ? Health.up()
+                : Health.outOfService();
+        return builder
+                .withDetail("cacheWarmUp", cacheWarmer.isFinished() ? "finished" : "running")
+                .withDetail("searchIndex", searchIndexState())
+                .build();
+    }
+
+    //PRIVATE
+    private String searchIndexState() {
+        if (recipeSearchIndex.isReady()) {
+            return "ready";
+        }
+        if (recipeSearchIndexer.hasRebuildFailed()) {
+            return "rebuild failed, retrying";
+        }
+        return recipeSearchIndexer.isRebuildOverdue() ? "building, past budget" : "building";
+    }
+}
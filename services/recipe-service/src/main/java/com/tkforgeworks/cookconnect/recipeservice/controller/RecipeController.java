@@ -1,40 +1,216 @@
 package com.tkforgeworks.cookconnect.recipeservice.controller;
 
+import com.tkforgeworks.cookconnect.recipeservice.cache.CachedRecipe;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.AuthorRecipeSliceDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeCreateDetailedRequestDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeCreateSimpleRequestDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeFacetPageDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeImportReportDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeIngredientMatchDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeReadModelReportDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeSliceDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeSummaryDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeUpdateRequestDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeVersionDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeVersionSummaryDto;
+import com.tkforgeworks.cookconnect.recipeservice.service.RecipeExportService;
+import com.tkforgeworks.cookconnect.recipeservice.service.RecipeImportService;
+import com.tkforgeworks.cookconnect.recipeservice.service.RecipeReadModelService;
+import com.tkforgeworks.cookconnect.recipeservice.service.RecipeSearchService;
 import com.tkforgeworks.cookconnect.recipeservice.service.RecipeService;
+import com.tkforgeworks.cookconnect.recipeservice.service.RecipeVersionService;
+import com.tkforgeworks.cookconnect.recipeservice.service.RecipeViewService;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Duration;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 public class RecipeController {
+    private static final int MAX_SLICE_SIZE = 100;
+    private static final int MAX_MISSING_INGREDIENTS = 5;
     private final RecipeService recipeService;
+    private final RecipeSearchService recipeSearchService;
+    private final RecipeImportService recipeImportService;
+    private final RecipeExportService recipeExportService;
+    private final RecipeVersionService recipeVersionService;
+    private final RecipeReadModelService recipeReadModelService;
+    private final RecipeViewService recipeViewService;
+
+    @Value("${tkforgeworks.http.public-max-age:PT30S}")
+    private Duration publicMaxAge;
 
     //GET
     @GetMapping("/")
     @RateLimiter(name = "main")
-    @Cacheable(value = "recipePages", key = "#page + '-' + #size")
-    public ResponseEntity<Page<RecipeSummaryDto>> getAllRecipes(
+    public ResponseEntity<byte[]> getAllRecipes(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "createdAt,desc") String[] sort
+            @RequestParam(defaultValue = "createdAt,desc") String[] sort,
+            ServletWebRequest webRequest
     ) {
-        Sort.Direction direction = sort[1].equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        validatePage(page, size);
+        //strong, within one generation the page is served byte for byte from RecipePageCache
+        String eTag = "\"" + recipeService.getBrowseVersion() + "\"";
+        if (isNotModified(webRequest, eTag, browseCacheControl())) {
+            return null;
+        }
+        Sort.Direction direction = sort.length > 1 && sort[1].equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort[0]));
-        Page<RecipeSummaryDto> recipes = recipeService.getAllRecipesSummary(pageable);
-        return ResponseEntity.ok(recipes);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .cacheControl(browseCacheControl())
+                .body(recipeService.getAllRecipesSummaryJson(pageable));
+    }
+    @GetMapping("/browse")
+    @RateLimiter(name = "main")
+    public ResponseEntity<RecipeSliceDto> browseRecipes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            ServletWebRequest webRequest
+    ) {
+        validateSize(size);
+        String eTag = "W/\"" + recipeService.getBrowseVersion() + "\"";
+        if (isNotModified(webRequest, eTag, browseCacheControl())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(browseCacheControl())
+                .body(recipeService.getRecipesSummarySlice(cursor, size));
+    }
+    @GetMapping("/authors/{userId}")
+    @RateLimiter(name = "main")
+    public ResponseEntity<AuthorRecipeSliceDto> getAuthorRecipes(
+            @PathVariable("userId") String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        validateSize(size);
+        return ResponseEntity.ok(recipeService.getAuthorRecipes(userId, cursor, size));
+    }
+    @GetMapping("/search")
+    @RateLimiter(name = "main")
+    public ResponseEntity<Page<RecipeSummaryDto>> searchRecipes(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        validatePage(page, size);
+        return ResponseEntity.ok(recipeSearchService.searchRecipes(query, page, size));
+    }
+    @GetMapping("/match")
+    @RateLimiter(name = "main")
+    public ResponseEntity<Page<RecipeIngredientMatchDto>> matchIngredients(
+            @RequestParam("ingredient") List<String> ingredients,
+            @RequestParam(defaultValue = "2") int maxMissing,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        if (maxMissing < 0 || maxMissing > MAX_MISSING_INGREDIENTS) {
+            throw new IllegalArgumentException(String.format("maxMissing must be between 0 and %d", MAX_MISSING_INGREDIENTS));
+        }
+        validatePage(page, size);
+        return ResponseEntity.ok(recipeSearchService.matchIngredients(ingredients, maxMissing, page, size));
+    }
+    @GetMapping("/facets")
+    @RateLimiter(name = "main")
+    public ResponseEntity<RecipeFacetPageDto> browseFacets(
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        validatePage(page, size);
+        return ResponseEntity.ok(recipeSearchService.browseFacets(tags, page, size));
+    }
+    @GetMapping("/export")
+    @RateLimiter(name = "main")
+    public ResponseEntity<StreamingResponseBody> exportRecipes(
+            @RequestParam(required = false) String author,
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        boolean zip = switch (format) {
+            case "ndjson" -> false;
+            case "zip" -> true;
+            default -> throw new IllegalArgumentException("format must be ndjson or zip");
+        };
+        String filename = zip ? "recipes.zip" : RecipeExportService.NDJSON_ENTRY + ".gz";
+        return ResponseEntity.ok()
+                .contentType(zip ? MediaType.parseMediaType("application/zip") : MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(recipeExportService.exportRecipes(author, zip));
+    }
+    //compares the read model with the normalized tables, lists up to max-reported-ids inconsistent recipe ids
+    @GetMapping("/read-model/check")
+    @PreAuthorize("hasRole('cookconnect_admin')")
+    public ResponseEntity<RecipeReadModelReportDto> checkReadModel() {
+        return ResponseEntity.ok(recipeReadModelService.check());
+    }
+    @GetMapping("/{recipeId}")
+    @RateLimiter(name = "main")
+    public ResponseEntity<RecipeDto> getRecipe(@PathVariable("recipeId") Long recipeId, ServletWebRequest webRequest) {
+        //a client holding the cached version is answered from memory, before any query or mapping
+        CachedRecipe cached = recipeService.peekCachedRecipe(recipeId);
+        if (cached != null && cached.eTag() != null && isNotModified(webRequest, cached.eTag(), recipeCacheControl(cached))) {
+            recipeViewService.recordView(recipeId);
+            return null;
+        }
+        CachedRecipe recipe = recipeService.getCachedRecipe(recipeId);
+        //counted once the recipe is known to exist and be visible, a 404 is not a view
+        recipeViewService.recordView(recipeId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(recipeCacheControl(recipe));
+        if (recipe.eTag() != null) {
+            response.eTag(recipe.eTag());
+        }
+        return response.body(recipe.recipe());
+    }
+    @GetMapping("/{recipeId}/versions")
+    @RateLimiter(name = "main")
+    public ResponseEntity<List<RecipeVersionSummaryDto>> getRecipeVersions(@PathVariable("recipeId") Long recipeId) {
+        return ResponseEntity.ok(recipeVersionService.getVersions(recipeId));
+    }
+    @GetMapping("/{recipeId}/versions/{version}")
+    @RateLimiter(name = "main")
+    public ResponseEntity<RecipeVersionDto> getRecipeVersion(@PathVariable("recipeId") Long recipeId,
+                                                             @PathVariable("version") int version) {
+        return ResponseEntity.ok(recipeVersionService.getVersion(recipeId, version));
+    }
+    //every fork below the recipe by default, direct=true limits it to forks of the recipe itself
+    @GetMapping("/{recipeId}/forks")
+    @RateLimiter(name = "main")
+    public ResponseEntity<Page<RecipeSummaryDto>> getRecipeForks(
+            @PathVariable("recipeId") Long recipeId,
+            @RequestParam(defaultValue = "false") boolean direct,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        validatePage(page, size);
+        return ResponseEntity.ok(recipeService.getForks(recipeId, direct, page, size));
+    }
+    @GetMapping("/{recipeId}/ancestors")
+    @RateLimiter(name = "main")
+    public ResponseEntity<List<RecipeSummaryDto>> getRecipeAncestors(@PathVariable("recipeId") Long recipeId) {
+        return ResponseEntity.ok(recipeService.getAncestors(recipeId));
     }
     //POST
     @PostMapping("/simple")
@@ -49,6 +225,63 @@ public class RecipeController {
         URI location = URI.create(String.format("/recipes/%s", createdRecipe.id()));
         return ResponseEntity.created(location).body(createdRecipe);
     }
+    @PostMapping("/{recipeId}/fork")
+    public ResponseEntity<RecipeDto> forkRecipe(@PathVariable("recipeId") Long recipeId) {
+        RecipeDto forkedRecipe = recipeService.forkRecipe(recipeId);
+        URI location = URI.create(String.format("/recipes/%s", forkedRecipe.id()));
+        return ResponseEntity.created(location).body(forkedRecipe);
+    }
+    //body is read line by line as it arrives, the report lists per-line failures and throughput
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('cookconnect_admin')")
+    public ResponseEntity<RecipeImportReportDto> importRecipes(InputStream ndjson) {
+        return ResponseEntity.ok(recipeImportService.importRecipes(ndjson));
+    }
+    @PostMapping("/read-model/rebuild")
+    @PreAuthorize("hasRole('cookconnect_admin')")
+    public ResponseEntity<RecipeReadModelReportDto> rebuildReadModel() {
+        return ResponseEntity.ok(recipeReadModelService.rebuild());
+    }
     //PUT
+    @PutMapping("/{recipeId}")
+    public ResponseEntity<RecipeDto> updateRecipe(@PathVariable("recipeId") Long recipeId,
+                                                  @RequestBody RecipeUpdateRequestDto recipeUpdateRequestDto) {
+        return ResponseEntity.ok(recipeService.updateRecipe(recipeId, recipeUpdateRequestDto));
+    }
     //DELETE
+    //PRIVATE
+    private void validatePage(int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        validateSize(size);
+    }
+
+    private void validateSize(int size) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new IllegalArgumentException(String.format("size must be between 1 and %d", MAX_SLICE_SIZE));
+        }
+    }
+
+    //on a match the 304 carries the same Cache-Control the 200 would have
+    private boolean isNotModified(ServletWebRequest webRequest, String eTag, CacheControl cacheControl) {
+        if (!webRequest.checkNotModified(eTag)) {
+            return false;
+        }
+        if (webRequest.getResponse() != null) {
+            webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+        return true;
+    }
+
+    //shared caches may keep public recipes briefly, anything else is per user and revalidated on every use
+    private CacheControl recipeCacheControl(CachedRecipe recipe) {
+        return recipe.isPublic()
+                ? CacheControl.maxAge(publicMaxAge).cachePublic()
+                : CacheControl.noCache().cachePrivate();
+    }
+
+    private CacheControl browseCacheControl() {
+        return CacheControl.maxAge(publicMaxAge).cachePublic();
+    }
 }
@@ -0,0 +1,30 @@
+package com.tkforgeworks.cookconnect.recipeservice.controller;
+
+import com.tkforgeworks.cookconnect.recipeservice.cache.CacheInvalidationMessage;
+import com.tkforgeworks.cookconnect.recipeservice.cache.PeerCacheInvalidator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/internal")
+@RequiredArgsConstructor
+public class RecipeInternalController {
+    private final PeerCacheInvalidator peerCacheInvalidator;
+
+    //POST
+    @PostMapping("/cache/invalidate")
+    public ResponseEntity<Void> invalidateCaches(
+            @RequestHeader(name = PeerCacheInvalidator.TOKEN_HEADER, required = false) String token,
+            @RequestBody List<CacheInvalidationMessage> messages
+    ) {
+        if (!peerCacheInvalidator.isTrusted(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        peerCacheInvalidator.apply(messages);
+        return ResponseEntity.noContent().build();
+    }
+}
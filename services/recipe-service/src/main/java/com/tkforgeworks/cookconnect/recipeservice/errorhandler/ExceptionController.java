@@ -4,8 +4,10 @@ import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.ratelimiter.RequestNotPermitted;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -32,6 +34,22 @@ public class ExceptionController {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(responseWrapper);
     }
 
+    @ExceptionHandler(value = { RecipeNotFoundException.class })
+    public @ResponseBody ResponseEntity<ResponseWrapper> handleRecipeNotFoundException(HttpServletRequest request,
+                                                                                       RuntimeException e) {
+        log.warn("Recipe not found: {}", e.getMessage());
+        RestErrorList errorList = new RestErrorList(
+                HttpStatus.NOT_FOUND,
+                ErrorMessage.withMessage(e.getMessage())
+        );
+        ResponseWrapper responseWrapper = new ResponseWrapper(
+                null,
+                Collections.singletonMap("status",HttpStatus.NOT_FOUND),
+                errorList
+        );
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(responseWrapper);
+    }
+
     @ExceptionHandler(RequestNotPermitted.class)
     public @ResponseBody ResponseEntity<ResponseWrapper> handleRateLimitException(
             HttpServletRequest request,
@@ -74,6 +92,50 @@ public class ExceptionController {
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(responseWrapper);
     }
 
+    @ExceptionHandler(SearchIndexNotReadyException.class)
+    public @ResponseBody ResponseEntity<ResponseWrapper> handleSearchIndexNotReadyException(
+            HttpServletRequest request,
+            SearchIndexNotReadyException e) {
+
+        log.debug("Search index not ready: {}", e.getMessage());
+
+        RestErrorList errorList = new RestErrorList(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ErrorMessage.withMessage(e.getMessage())
+        );
+
+        ResponseWrapper responseWrapper = new ResponseWrapper(
+                null,
+                Collections.singletonMap("status", HttpStatus.SERVICE_UNAVAILABLE),
+                errorList
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(responseWrapper);
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public @ResponseBody ResponseEntity<ResponseWrapper> handleAccessDeniedException(
+            HttpServletRequest request,
+            AccessDeniedException e) {
+
+        log.warn("Access denied: {}", e.getMessage());
+
+        RestErrorList errorList = new RestErrorList(
+                HttpStatus.FORBIDDEN,
+                ErrorMessage.withMessage(e.getMessage())
+        );
+
+        ResponseWrapper responseWrapper = new ResponseWrapper(
+                null,
+                Collections.singletonMap("status", HttpStatus.FORBIDDEN),
+                errorList
+        );
+
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(responseWrapper);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public @ResponseBody ResponseEntity<ResponseWrapper> handleIllegalArgumentException(
             HttpServletRequest request,
@@ -0,0 +1,7 @@
+package com.tkforgeworks.cookconnect.recipeservice.errorhandler;
+
+public class RecipeNotFoundException extends RuntimeException {
+    public RecipeNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.tkforgeworks.cookconnect.recipeservice.errorhandler;
+
+public class SearchIndexNotReadyException extends RuntimeException {
+    public SearchIndexNotReadyException(String message) {
+        super(message);
+    }
+}
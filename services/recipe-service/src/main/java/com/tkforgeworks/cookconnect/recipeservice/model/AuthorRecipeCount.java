@@ -0,0 +1,65 @@
+package com.tkforgeworks.cookconnect.recipeservice.model;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+
+/*
+How many recipes an author has in one visibility.
+    kept in step with the recipe table inside every transaction that creates a recipe or changes its
+    visibility, so a profile page sums at most four rows instead of counting the author's recipes.
+    an author gets a row for every visibility at once, counted from the recipe table the first time it is needed
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+@Table(name = "author_recipe_count")
+public class AuthorRecipeCount implements Persistable<AuthorRecipeCount.Key> {
+    @EmbeddedId
+    private Key key;
+    @Column(nullable = false)
+    private long recipeCount;
+    @Transient
+    @ToString.Exclude
+    private boolean fresh;
+
+    @Override
+    public Key getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        fresh = false;
+    }
+
+    @Embeddable
+    @Getter
+    @Setter
+    @ToString
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "created_by", nullable = false)
+        private String createdBy;
+        @Enumerated(EnumType.STRING)
+        @Column(name = "visibility", nullable = false)
+        private VisibilitySettings visibility;
+    }
+}
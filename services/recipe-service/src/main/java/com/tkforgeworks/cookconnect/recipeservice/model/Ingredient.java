@@ -13,9 +13,15 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @ToString
+@Table(
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_ingredient_name", columnNames = "name")
+        }
+)
 public class Ingredient {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingredient_seq")
+    @SequenceGenerator(name = "ingredient_seq", sequenceName = "ingredient_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private String name;
@@ -17,13 +17,15 @@ import java.util.Set;
 @ToString
 public class IngredientList {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingredient_list_seq")
+    @SequenceGenerator(name = "ingredient_list_seq", sequenceName = "ingredient_list_seq", allocationSize = 50)
     private Long id;
 
-    @OneToMany(fetch = FetchType.EAGER,
+    @OneToMany(fetch = FetchType.LAZY,
             cascade = CascadeType.ALL,
             orphanRemoval = true,
-            mappedBy = "id")
+            mappedBy = "ingredientList")
+    @ToString.Exclude
     private Set<IngredientListItem> ingredients = new HashSet<>();
 
     @CreationTimestamp
@@ -12,7 +12,8 @@ import lombok.ToString;
 @ToString
 public class IngredientListItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingredient_list_item_seq")
+    @SequenceGenerator(name = "ingredient_list_item_seq", sequenceName = "ingredient_list_item_seq", allocationSize = 50)
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
     @ToString.Exclude
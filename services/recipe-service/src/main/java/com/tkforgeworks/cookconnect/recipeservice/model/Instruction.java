@@ -11,7 +11,8 @@ import lombok.ToString;
 @ToString
 public class Instruction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "instruction_seq")
+    @SequenceGenerator(name = "instruction_seq", sequenceName = "instruction_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
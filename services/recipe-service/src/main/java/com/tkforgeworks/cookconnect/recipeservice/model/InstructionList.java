@@ -17,13 +17,15 @@ import java.util.Set;
 @ToString
 public class InstructionList {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "instruction_list_seq")
+    @SequenceGenerator(name = "instruction_list_seq", sequenceName = "instruction_list_seq", allocationSize = 50)
     private Long id;
 
-    @OneToMany(fetch = FetchType.EAGER,
+    @OneToMany(fetch = FetchType.LAZY,
             cascade = CascadeType.ALL,
             orphanRemoval = true,
-            mappedBy = "id")
+            mappedBy = "instructionList")
+    @ToString.Exclude
     private Set<InstructionListItem> instructions = new HashSet<>();
 
     @CreationTimestamp
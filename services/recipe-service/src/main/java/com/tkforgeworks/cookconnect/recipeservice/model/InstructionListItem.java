@@ -11,7 +11,8 @@ import lombok.ToString;
 @ToString
 public class InstructionListItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "instruction_list_item_seq")
+    @SequenceGenerator(name = "instruction_list_item_seq", sequenceName = "instruction_list_item_seq", allocationSize = 50)
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
     @ToString.Exclude
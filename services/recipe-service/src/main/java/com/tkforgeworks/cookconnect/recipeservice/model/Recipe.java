@@ -3,9 +3,11 @@ package com.tkforgeworks.cookconnect.recipeservice.model;
 import com.tkforgeworks.cookconnect.recipeservice.model.enums.SkillLevel;
 import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -21,13 +23,27 @@ import java.util.Set;
         indexes = {
                 @Index(name = "idx_recipe_created_by", columnList = "created_by"),
                 @Index(name = "idx_recipe_created_at", columnList = "created_at"),
+                @Index(name = "idx_recipe_updated_at", columnList = "updated_at"),
                 @Index(name = "idx_recipe_title", columnList = "title"),
-                @Index(name = "idx_recipe_created_by_created_at", columnList = "created_by, created_at") // Composite index
+                //author listings walk this index in keyset order; InnoDB appends the primary key, id is spelled out for other engines
+                @Index(name = "idx_recipe_created_by_created_at", columnList = "created_by, created_at, id"), // Composite index
+                @Index(name = "idx_recipe_ingredient_list", columnList = "ingredient_list_id"),
+                @Index(name = "idx_recipe_instruction_list", columnList = "instruction_list_id"),
+                @Index(name = "idx_recipe_tag_list", columnList = "tag_list_id"),
+                @Index(name = "idx_recipe_forked_from", columnList = "forked_from"),
+                @Index(name = "idx_recipe_fork_path", columnList = "fork_path"),
+                //public browse walks this index alone: equality on visibility, then created_at/id in keyset order
+                @Index(name = "idx_recipe_visibility_created_at", columnList = "recipe_visibility_settings, created_at, id"),
+                //the cache warm-up reads the most viewed recipes off the end of this index
+                @Index(name = "idx_recipe_view_count", columnList = "view_count, id")
         }
 )
 public class Recipe {
+    //fits an index on utf8mb4 columns, room for dozens of fork generations
+    public static final int FORK_PATH_LENGTH = 700;
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_seq")
+    @SequenceGenerator(name = "recipe_seq", sequenceName = "recipe_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private String title;
@@ -41,21 +57,48 @@ public class Recipe {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     @Enumerated(EnumType.STRING)
-    private VisibilitySettings recipeVisibilitySettings;
+    @Column(name = "recipe_visibility_settings", nullable = false)
+    private VisibilitySettings recipeVisibilitySettings = VisibilitySettings.PUBLIC;
     @Enumerated(EnumType.STRING)
     private SkillLevel skillLevel;
+    //fork lineage: the recipe this was forked from, and the ids of all its ancestors root first as /1/5/9/
+    @Column(name = "forked_from")
+    private Long forkedFrom;
+    @Column(name = "fork_path", length = FORK_PATH_LENGTH)
+    private String forkPath;
+    //owned by RecipeViewService, which adds flushed deltas in place; entity writes never insert or overwrite it
+    @ColumnDefault("0")
+    @Column(name = "view_count", nullable = false, insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private long viewCount;
 
-    @OneToOne(cascade = CascadeType.ALL, optional = false)
+    /*
+    Lists are shared between a recipe and its forks until one of them edits a list,
+        the editing recipe then gets its own copy (see RecipeService.updateRecipe)
+     */
+    @ManyToOne(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE}, optional = false)
     @JoinColumn(name = "ingredient_list_id", referencedColumnName = "id")
+    @ToString.Exclude
     private IngredientList ingredientList;
-    @OneToOne(cascade = CascadeType.ALL, optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE}, optional = false)
     @JoinColumn(name = "instruction_list_id", referencedColumnName = "id")
+    @ToString.Exclude
     private InstructionList instructionList;
-    @OneToOne(cascade = CascadeType.ALL, optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE}, optional = false)
     @JoinColumn(name = "tag_list_id", referencedColumnName = "id")
+    @ToString.Exclude
     private TagList tagList;
 
     @OneToMany(cascade = CascadeType.ALL)
     @ToString.Exclude
     private Set<RecipeNote> recipeNotes = new HashSet<>();
+
+    //requests may leave visibility out, a recipe without one has always been listed publicly
+    @PrePersist
+    @PreUpdate
+    void defaultVisibility() {
+        if (recipeVisibilitySettings == null) {
+            recipeVisibilitySettings = VisibilitySettings.PUBLIC;
+        }
+    }
 }
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -18,7 +19,8 @@ import java.time.LocalDateTime;
 @ToString
 public class RecipeNote {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_note_seq")
+    @SequenceGenerator(name = "recipe_note_seq", sequenceName = "recipe_note_seq", allocationSize = 50)
     private Long id;
     private String text;
     @CreationTimestamp
@@ -0,0 +1,59 @@
+package com.tkforgeworks.cookconnect.recipeservice.model;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/*
+Read side of a recipe: the complete RecipeDto as JSON, keyed by recipe id.
+    written in the same transaction as every recipe write, so a detail read is one primary key lookup
+    instead of a walk over ten tables; the normalized tables stay the source of truth.
+    createdBy and visibility are copied out of the document so readers can filter without parsing it
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+@Table(name = "recipe_read_model")
+public class RecipeReadModel implements Persistable<Long> {
+    public static final int DOCUMENT_LENGTH = 1_000_000;
+
+    @Id
+    @Column(name = "recipe_id")
+    private Long recipeId;
+    @Column(nullable = false, length = DOCUMENT_LENGTH)
+    @ToString.Exclude
+    private String document;
+    private String createdBy;
+    @Enumerated(EnumType.STRING)
+    private VisibilitySettings visibility;
+    //updatedAt of the recipe the document was built from
+    private LocalDateTime recipeUpdatedAt;
+    @Column(nullable = false)
+    private LocalDateTime materializedAt;
+    //ids are assigned from the recipe, so Spring Data cannot tell a new document from an existing one by id
+    @Transient
+    @ToString.Exclude
+    private boolean fresh;
+
+    @Override
+    public Long getId() {
+        return recipeId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        fresh = false;
+    }
+}
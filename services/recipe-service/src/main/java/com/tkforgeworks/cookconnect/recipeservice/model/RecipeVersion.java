@@ -0,0 +1,43 @@
+package com.tkforgeworks.cookconnect.recipeservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/*
+One row per recipe edit.
+    snapshot rows hold a full RecipeVersionState, the rows in between hold a RecipeVersionDelta
+    against the version before them; both as JSON in payload
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+@Table(
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_recipe_version_number", columnNames = {"recipe_id", "version_number"})
+        }
+)
+public class RecipeVersion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_version_seq")
+    @SequenceGenerator(name = "recipe_version_seq", sequenceName = "recipe_version_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "recipe_id", nullable = false)
+    private Long recipeId;
+    @Column(name = "version_number", nullable = false)
+    private int versionNumber;
+    @Column(nullable = false)
+    private boolean snapshot;
+    @Column(nullable = false, length = 1_000_000)
+    @ToString.Exclude
+    private String payload;
+    private String editedBy;
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
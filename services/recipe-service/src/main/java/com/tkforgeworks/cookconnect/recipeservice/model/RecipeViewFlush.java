@@ -0,0 +1,57 @@
+package com.tkforgeworks.cookconnect.recipeservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/*
+One applied batch of view count deltas.
+    written in the transaction that adds the batch to recipe.view_count, so a batch retried after a lost
+    commit acknowledgement, or by an instance flushing on its way down, fails on the primary key instead of
+    counting its views twice
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+@Table(
+        name = "recipe_view_flush",
+        indexes = {
+                @Index(name = "idx_recipe_view_flush_flushed_at", columnList = "flushed_at")
+        }
+)
+public class RecipeViewFlush implements Persistable<String> {
+    @Id
+    @Column(name = "flush_id", length = 80)
+    private String flushId;
+    @Column(name = "flushed_at", nullable = false)
+    private LocalDateTime flushedAt;
+    @Column(nullable = false)
+    private int recipes;
+    @Column(nullable = false)
+    private long views;
+    //ids are assigned by the flushing instance, every flush row is an insert
+    @Transient
+    @ToString.Exclude
+    private boolean fresh;
+
+    @Override
+    public String getId() {
+        return flushId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        fresh = false;
+    }
+}
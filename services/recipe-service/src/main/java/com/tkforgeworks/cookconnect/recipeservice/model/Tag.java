@@ -14,12 +14,17 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @ToString
+@Table(
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_tag_name", columnNames = "name")
+        }
+)
 public class Tag {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_seq")
+    @SequenceGenerator(name = "tag_seq", sequenceName = "tag_seq", allocationSize = 50)
     private Long id;
 
-    @Column(unique = true)
     private String name;
     private String description;
     private TagCategory category;
@@ -17,13 +17,15 @@ import java.util.Set;
 @ToString
 public class TagList {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_list_seq")
+    @SequenceGenerator(name = "tag_list_seq", sequenceName = "tag_list_seq", allocationSize = 50)
     private Long id;
 
-    @OneToMany(fetch = FetchType.EAGER,
+    @OneToMany(fetch = FetchType.LAZY,
             cascade = CascadeType.ALL,
             orphanRemoval = true,
-            mappedBy = "id")
+            mappedBy = "tagList")
+    @ToString.Exclude
     private Set<TagListItem> tags = new HashSet<>();
 
     @CreationTimestamp
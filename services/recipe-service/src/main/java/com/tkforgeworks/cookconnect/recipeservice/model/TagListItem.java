@@ -11,7 +11,8 @@ import lombok.ToString;
 @ToString
 public class TagListItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_list_item_seq")
+    @SequenceGenerator(name = "tag_list_item_seq", sequenceName = "tag_list_item_seq", allocationSize = 50)
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
     @ToString.Exclude
@@ -0,0 +1,13 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+//recipeCount is how many of the author's recipes the caller may list, over every page
+public record AuthorRecipeSliceDto(String createdBy,
+                                   long recipeCount,
+                                   List<RecipeSummaryDto> content,
+                                   int size,
+                                   boolean hasNext,
+                                   String nextCursor)
+        implements Serializable {}
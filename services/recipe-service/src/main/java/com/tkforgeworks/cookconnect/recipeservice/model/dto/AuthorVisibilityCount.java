@@ -0,0 +1,6 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+
+public record AuthorVisibilityCount(VisibilitySettings visibility,
+                                    long recipeCount) {}
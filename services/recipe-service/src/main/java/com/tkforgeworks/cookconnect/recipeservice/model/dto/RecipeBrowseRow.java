@@ -0,0 +1,17 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+import java.time.LocalDateTime;
+
+/*
+Narrow read projection for keyset browsing.
+    carries the cursor columns alongside the summary fields so a page never loads Recipe entities
+ */
+public record RecipeBrowseRow(Long id,
+                              String title,
+                              String createdByUsername,
+                              LocalDateTime createdAt,
+                              long viewCount) {
+    public RecipeSummaryDto toSummary() {
+        return new RecipeSummaryDto(id, title, createdByUsername, viewCount);
+    }
+}
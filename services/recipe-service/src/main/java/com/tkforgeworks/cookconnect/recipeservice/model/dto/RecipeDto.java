@@ -2,6 +2,7 @@ package com.tkforgeworks.cookconnect.recipeservice.model.dto;
 
 import com.tkforgeworks.cookconnect.recipeservice.model.RecipeNote;
 import com.tkforgeworks.cookconnect.recipeservice.model.enums.SkillLevel;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
 
 import java.io.Serializable;
 import java.util.List;
@@ -12,6 +13,7 @@ public record RecipeDto(Long id,
                         String createdBy,
                         String createdByUsername,
                         SkillLevel skillLevel,
+                        VisibilitySettings recipeVisibilitySettings,
                         IngredientListDto ingredientList,
                         InstructionListDto instructionList,
                         TagListDto tagList,
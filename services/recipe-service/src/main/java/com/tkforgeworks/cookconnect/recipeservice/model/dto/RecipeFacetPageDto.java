@@ -0,0 +1,14 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.TagCategory;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+public record RecipeFacetPageDto(List<RecipeSummaryDto> content,
+                                 int page,
+                                 int size,
+                                 long totalElements,
+                                 Map<TagCategory, List<TagFacetCountDto>> facets)
+        implements Serializable {}
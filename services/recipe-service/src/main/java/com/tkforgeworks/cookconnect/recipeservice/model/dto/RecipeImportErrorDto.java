@@ -0,0 +1,7 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+import java.io.Serializable;
+
+public record RecipeImportErrorDto(long line,
+                                   String message)
+        implements Serializable {}
@@ -0,0 +1,13 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+public record RecipeImportReportDto(long lines,
+                                    long imported,
+                                    long failed,
+                                    long elapsedMillis,
+                                    double recipesPerSecond,
+                                    List<RecipeImportErrorDto> errors,
+                                    boolean errorsTruncated)
+        implements Serializable {}
@@ -0,0 +1,9 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+import java.io.Serializable;
+
+public record RecipeIngredientMatchDto(Long id,
+                                       String title,
+                                       String createdByUsername,
+                                       int missingIngredients)
+        implements Serializable {}
@@ -0,0 +1,9 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+import java.io.Serializable;
+
+//how many recipes reference each of one recipe's lists, more than one means the list is shared with a fork
+public record RecipeListShares(long ingredientList,
+                               long instructionList,
+                               long tagList)
+        implements Serializable {}
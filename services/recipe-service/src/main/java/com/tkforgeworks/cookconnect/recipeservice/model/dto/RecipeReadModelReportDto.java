@@ -0,0 +1,16 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+public record RecipeReadModelReportDto(long recipes,
+                                       long consistent,
+                                       long missing,
+                                       long stale,
+                                       long orphaned,
+                                       long written,
+                                       long removed,
+                                       List<Long> inconsistentIds,
+                                       boolean inconsistentIdsTruncated,
+                                       long elapsedMillis)
+        implements Serializable {}
@@ -0,0 +1,10 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+public record RecipeSliceDto(List<RecipeSummaryDto> content,
+                             int size,
+                             boolean hasNext,
+                             String nextCursor)
+        implements Serializable {}
@@ -4,5 +4,6 @@ import java.io.Serializable;
 
 public record RecipeSummaryDto(Long id,
                                String title,
-                               String createdByUsername)
+                               String createdByUsername,
+                               long viewCount)
         implements Serializable {}
@@ -0,0 +1,15 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.SkillLevel;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+
+import java.io.Serializable;
+
+public record RecipeUpdateRequestDto(String title,
+                                     String description,
+                                     SkillLevel skillLevel,
+                                     VisibilitySettings recipeVisibilitySettings,
+                                     IngredientListDto ingredientList,
+                                     InstructionListDto instructionList,
+                                     TagListDto tagList)
+        implements Serializable {}
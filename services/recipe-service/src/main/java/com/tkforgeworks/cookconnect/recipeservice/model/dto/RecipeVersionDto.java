@@ -0,0 +1,13 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+import com.tkforgeworks.cookconnect.recipeservice.version.RecipeVersionState;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+public record RecipeVersionDto(Long recipeId,
+                               int version,
+                               String editedBy,
+                               LocalDateTime createdAt,
+                               RecipeVersionState recipe)
+        implements Serializable {}
@@ -0,0 +1,10 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+public record RecipeVersionSummaryDto(int version,
+                                      boolean snapshot,
+                                      String editedBy,
+                                      LocalDateTime createdAt)
+        implements Serializable {}
@@ -0,0 +1,3 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+public record RecipeViewCount(Long id, long viewCount) {}
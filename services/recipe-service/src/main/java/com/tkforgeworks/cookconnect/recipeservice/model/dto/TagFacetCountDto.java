@@ -0,0 +1,8 @@
+package com.tkforgeworks.cookconnect.recipeservice.model.dto;
+
+import java.io.Serializable;
+
+public record TagFacetCountDto(String name,
+                               long count,
+                               boolean selected)
+        implements Serializable {}
@@ -26,6 +26,9 @@ public interface RecipeServiceMapper {
     TagDto toTagDto(Tag tag);
 
     //From DTO's
+    //fork lineage is only ever set by RecipeService.forkRecipe
+    @Mapping(target = "forkedFrom", ignore = true)
+    @Mapping(target = "forkPath", ignore = true)
     Recipe toRecipe(RecipeDto recipeDto);
     @Mapping(source = "listItems", target = "ingredients")
     IngredientList toIngredientList(IngredientListDto ingredientListDto);
@@ -45,6 +48,10 @@ public interface RecipeServiceMapper {
     List<RecipeDto> toRecipeDtos(List<Recipe> recipes);
 
     RecipeSummaryDto toRecipeSummaryDto(Recipe recipe);
+    @Mapping(target = "forkedFrom", ignore = true)
+    @Mapping(target = "forkPath", ignore = true)
     Recipe toRecipeFromCreateSimple(RecipeCreateSimpleRequestDto recipeCreateSimpleRequestDto);
+    @Mapping(target = "forkedFrom", ignore = true)
+    @Mapping(target = "forkPath", ignore = true)
     Recipe toRecipeFromCreateDetailed(RecipeCreateDetailedRequestDto recipeCreateDetailedRequestDto);
 }
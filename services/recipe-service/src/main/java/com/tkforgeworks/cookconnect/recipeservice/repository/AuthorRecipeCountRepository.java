@@ -0,0 +1,31 @@
+package com.tkforgeworks.cookconnect.recipeservice.repository;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.AuthorRecipeCount;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AuthorRecipeCountRepository extends JpaRepository<AuthorRecipeCount, AuthorRecipeCount.Key> {
+    @Query("select c from AuthorRecipeCount c where c.key.createdBy = :createdBy")
+    List<AuthorRecipeCount> findByCreatedBy(@Param("createdBy") String createdBy);
+
+    @Query("select distinct c.key.createdBy from AuthorRecipeCount c where c.key.createdBy in :createdBy")
+    List<String> findCountedAuthors(@Param("createdBy") Collection<String> createdBy);
+
+    //applied in place so concurrent writers for one author never lose an update
+    @Modifying
+    @Query("""
+            update AuthorRecipeCount c set c.recipeCount = c.recipeCount + :delta
+            where c.key.createdBy = :createdBy and c.key.visibility = :visibility
+            """)
+    int adjust(@Param("createdBy") String createdBy,
+               @Param("visibility") VisibilitySettings visibility,
+               @Param("delta") long delta);
+}
@@ -2,8 +2,20 @@ package com.tkforgeworks.cookconnect.recipeservice.repository;
 
 import com.tkforgeworks.cookconnect.recipeservice.model.IngredientList;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface IngredientListRepository extends JpaRepository<IngredientList, Long> {
+    @Query("""
+            select l from IngredientList l
+            left join fetch l.ingredients i
+            left join fetch i.ingredient
+            where l.id in :ids
+            """)
+    List<IngredientList> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,12 +1,30 @@
 package com.tkforgeworks.cookconnect.recipeservice.repository;
 
 import com.tkforgeworks.cookconnect.recipeservice.model.Ingredient;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.DictionaryNameId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
     Optional<Ingredient> findByName(String name);
+
+    //name is unique, the group by only guards the pairing against rows written before the key existed
+    @Query("""
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.DictionaryNameId(i.name, min(i.id))
+            from Ingredient i
+            where i.name in :names
+            group by i.name
+            """)
+    List<DictionaryNameId> findIdsByNameIn(@Param("names") Collection<String> names);
+
+    @Query("select i from IngredientListItem li join li.ingredient i group by i order by count(li) desc")
+    List<Ingredient> findMostUsed(Limit limit);
 }
@@ -2,8 +2,20 @@ package com.tkforgeworks.cookconnect.recipeservice.repository;
 
 import com.tkforgeworks.cookconnect.recipeservice.model.InstructionList;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface InstructionListRepository extends JpaRepository<InstructionList, Long> {
+    @Query("""
+            select l from InstructionList l
+            left join fetch l.instructions i
+            left join fetch i.instruction
+            where l.id in :ids
+            """)
+    List<InstructionList> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 }
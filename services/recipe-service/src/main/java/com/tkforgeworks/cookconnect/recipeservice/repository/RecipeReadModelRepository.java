@@ -0,0 +1,30 @@
+package com.tkforgeworks.cookconnect.recipeservice.repository;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.RecipeReadModel;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecipeReadModelRepository extends JpaRepository<RecipeReadModel, Long> {
+    List<RecipeReadModel> findByRecipeIdIn(Collection<Long> recipeIds);
+
+    //documents whose recipe row is gone, walked by keyset like the export
+    @Query("""
+            select d.recipeId from RecipeReadModel d
+            where d.recipeId > :afterId
+              and not exists (select r.id from Recipe r where r.id = d.recipeId)
+            order by d.recipeId
+            """)
+    List<Long> findOrphanIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Query("delete from RecipeReadModel d where d.recipeId in :recipeIds")
+    int deleteByRecipeIdIn(@Param("recipeIds") Collection<Long> recipeIds);
+}
@@ -1,9 +1,231 @@
 package com.tkforgeworks.cookconnect.recipeservice.repository;
 
 import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.AuthorVisibilityCount;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeBrowseRow;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeListShares;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeSummaryDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeViewCount;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
-}
\ No newline at end of file
+    //Visibility - what a RecipeViewer may list: public recipes, its own, and PROTECTED ones of authors it follows
+    String LISTED_FOR_VIEWER = """
+            (r.recipeVisibilitySettings = com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings.PUBLIC
+                or r.createdBy = :viewerId
+                or (r.recipeVisibilitySettings = com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings.PROTECTED
+                    and r.createdBy in :following))
+            """;
+    String IS_PUBLIC = " r.recipeVisibilitySettings = com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings.PUBLIC ";
+
+    //Detail reads - recipe row joined to its three list headers, items are loaded per list type
+    @EntityGraph(attributePaths = {"ingredientList", "instructionList", "tagList"})
+    @Query("select r from Recipe r where r.id in :ids")
+    List<Recipe> findWithListsByIdIn(@Param("ids") Collection<Long> ids);
+
+    //Edits - locks the recipe row so concurrent edits of one recipe apply and version one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Recipe r where r.id = :id")
+    Optional<Recipe> findForUpdateById(@Param("id") Long id);
+
+    @Query("""
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeListShares(
+                (select count(a) from Recipe a where a.ingredientList = r.ingredientList),
+                (select count(b) from Recipe b where b.instructionList = r.instructionList),
+                (select count(c) from Recipe c where c.tagList = r.tagList))
+            from Recipe r
+            where r.id = :id
+            """)
+    RecipeListShares findListShares(@Param("id") Long id);
+
+    //Summary projections - select only the summary columns, never the list associations
+    @Query(value = """
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeSummaryDto(
+                r.id, r.title, r.createdByUsername, r.viewCount)
+            from Recipe r
+            where""" + IS_PUBLIC,
+            countQuery = "select count(r) from Recipe r where" + IS_PUBLIC)
+    Page<RecipeSummaryDto> findPublicSummaries(Pageable pageable);
+
+    @Query("""
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeSummaryDto(
+                r.id, r.title, r.createdByUsername, r.viewCount)
+            from Recipe r
+            where r.id in :ids and """ + LISTED_FOR_VIEWER)
+    List<RecipeSummaryDto> findListedSummariesByIdIn(@Param("ids") Collection<Long> ids,
+                                                     @Param("viewerId") String viewerId,
+                                                     @Param("following") Collection<String> following);
+
+    //Fork lineage - descendants share their ancestor's fork_path as a prefix, so the whole subtree is one index range
+    @Query(value = """
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeSummaryDto(
+                r.id, r.title, r.createdByUsername, r.viewCount)
+            from Recipe r
+            where r.forkPath like :pathPrefix and """ + LISTED_FOR_VIEWER + """
+            order by r.id
+            """,
+            countQuery = "select count(r) from Recipe r where r.forkPath like :pathPrefix and " + LISTED_FOR_VIEWER)
+    Page<RecipeSummaryDto> findListedForksByPathPrefix(@Param("pathPrefix") String pathPrefix,
+                                                       @Param("viewerId") String viewerId,
+                                                       @Param("following") Collection<String> following,
+                                                       Pageable pageable);
+
+    @Query(value = """
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeSummaryDto(
+                r.id, r.title, r.createdByUsername, r.viewCount)
+            from Recipe r
+            where r.forkedFrom = :forkedFrom and """ + LISTED_FOR_VIEWER + """
+            order by r.id
+            """,
+            countQuery = "select count(r) from Recipe r where r.forkedFrom = :forkedFrom and " + LISTED_FOR_VIEWER)
+    Page<RecipeSummaryDto> findListedDirectForks(@Param("forkedFrom") Long forkedFrom,
+                                                 @Param("viewerId") String viewerId,
+                                                 @Param("following") Collection<String> following,
+                                                 Pageable pageable);
+
+    /*
+    Public keyset browsing in two steps: ids first, answered from idx_recipe_visibility_created_at alone
+        (index-only, no filesort), then the page's rows by primary key
+     */
+    @Query("select r.id from Recipe r where" + IS_PUBLIC + "order by r.createdAt desc, r.id desc")
+    List<Long> findPublicNewestIds(Limit limit);
+
+    @Query("""
+            select r.id from Recipe r
+            where""" + IS_PUBLIC + """
+                and (r.createdAt < :createdAt or (r.createdAt = :createdAt and r.id < :id))
+            order by r.createdAt desc, r.id desc
+            """)
+    List<Long> findPublicNewestIdsAfter(@Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Limit limit);
+
+    @Query("""
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeBrowseRow(
+                r.id, r.title, r.createdByUsername, r.createdAt, r.viewCount)
+            from Recipe r
+            where r.id in :ids
+            """)
+    List<RecipeBrowseRow> findBrowseRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /*
+    An author's recipes newest first by keyset, walking idx_recipe_created_by_created_at in index order.
+        the visibility predicate reads rows, but the walk stops as soon as the page is full
+     */
+    @Query("""
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeBrowseRow(
+                r.id, r.title, r.createdByUsername, r.createdAt, r.viewCount)
+            from Recipe r
+            where r.createdBy = :createdBy and """ + LISTED_FOR_VIEWER + """
+            order by r.createdAt desc, r.id desc
+            """)
+    List<RecipeBrowseRow> findListedByAuthorNewest(@Param("createdBy") String createdBy,
+                                                   @Param("viewerId") String viewerId,
+                                                   @Param("following") Collection<String> following,
+                                                   Limit limit);
+
+    @Query("""
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeBrowseRow(
+                r.id, r.title, r.createdByUsername, r.createdAt, r.viewCount)
+            from Recipe r
+            where r.createdBy = :createdBy
+                and (r.createdAt < :createdAt or (r.createdAt = :createdAt and r.id < :id))
+                and """ + LISTED_FOR_VIEWER + """
+            order by r.createdAt desc, r.id desc
+            """)
+    List<RecipeBrowseRow> findListedByAuthorNewestAfter(@Param("createdBy") String createdBy,
+                                                        @Param("createdAt") LocalDateTime createdAt,
+                                                        @Param("id") Long id,
+                                                        @Param("viewerId") String viewerId,
+                                                        @Param("following") Collection<String> following,
+                                                        Limit limit);
+
+    //only used to seed an author's AuthorRecipeCount rows
+    @Query("""
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.AuthorVisibilityCount(
+                r.recipeVisibilitySettings, count(r))
+            from Recipe r
+            where r.createdBy = :createdBy
+            group by r.recipeVisibilitySettings
+            """)
+    List<AuthorVisibilityCount> countByVisibility(@Param("createdBy") String createdBy);
+
+    //Keyset walk over every recipe, newest first, for rebuilding the search indexes
+    @Query("""
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeBrowseRow(
+                r.id, r.title, r.createdByUsername, r.createdAt, r.viewCount)
+            from Recipe r
+            order by r.createdAt desc, r.id desc
+            """)
+    List<RecipeBrowseRow> findNewest(Limit limit);
+
+    @Query("""
+            select r.id
+            from Recipe r
+            order by r.viewCount desc, r.id desc
+            """)
+    List<Long> findMostViewedIds(Limit limit);
+
+    @Query("""
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeBrowseRow(
+                r.id, r.title, r.createdByUsername, r.createdAt, r.viewCount)
+            from Recipe r
+            where r.createdAt < :createdAt
+                or (r.createdAt = :createdAt and r.id < :id)
+            order by r.createdAt desc, r.id desc
+            """)
+    List<RecipeBrowseRow> findNewestAfter(@Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Limit limit);
+
+    //view counts for summaries built outside the database, e.g. from the search index
+    @Query("""
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeViewCount(r.id, r.viewCount)
+            from Recipe r
+            where r.id in :ids
+            """)
+    List<RecipeViewCount> findViewCountsByIdIn(@Param("ids") Collection<Long> ids);
+
+    //Export keysets - ids only, in primary key order, the graph is loaded per chunk by RecipeGraphLoader
+    @Query("select r.id from Recipe r where r.id > :afterId order by r.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select r.id from Recipe r where r.createdBy = :createdBy and r.id > :afterId order by r.id")
+    List<Long> findIdsByCreatedByAfter(@Param("createdBy") String createdBy,
+                                       @Param("afterId") Long afterId,
+                                       Limit limit);
+
+    @Query("select r.id from Recipe r where r.id > :afterId and " + LISTED_FOR_VIEWER + " order by r.id")
+    List<Long> findListedIdsAfter(@Param("afterId") Long afterId,
+                                  @Param("viewerId") String viewerId,
+                                  @Param("following") Collection<String> following,
+                                  Limit limit);
+
+    @Query("select r.id from Recipe r where r.createdBy = :createdBy and r.id > :afterId and " + LISTED_FOR_VIEWER + " order by r.id")
+    List<Long> findListedIdsByCreatedByAfter(@Param("createdBy") String createdBy,
+                                             @Param("afterId") Long afterId,
+                                             @Param("viewerId") String viewerId,
+                                             @Param("following") Collection<String> following,
+                                             Limit limit);
+
+    @Query("select r.createdBy from Recipe r where r.id = :id")
+    Optional<String> findCreatedByById(@Param("id") Long id);
+
+    @Query("select r.id from Recipe r where r.updatedAt >= :since")
+    List<Long> findIdsUpdatedSince(@Param("since") LocalDateTime since);
+}
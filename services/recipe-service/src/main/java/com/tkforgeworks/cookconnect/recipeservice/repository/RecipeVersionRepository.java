@@ -0,0 +1,35 @@
+package com.tkforgeworks.cookconnect.recipeservice.repository;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.RecipeVersion;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeVersionSummaryDto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecipeVersionRepository extends JpaRepository<RecipeVersion, Long> {
+    //Listing projection - never reads the payloads
+    @Query("""
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeVersionSummaryDto(
+                v.versionNumber, v.snapshot, v.editedBy, v.createdAt)
+            from RecipeVersion v
+            where v.recipeId = :recipeId
+            order by v.versionNumber desc
+            """)
+    List<RecipeVersionSummaryDto> findSummariesByRecipeId(@Param("recipeId") Long recipeId);
+
+    Optional<RecipeVersion> findFirstByRecipeIdOrderByVersionNumberDesc(Long recipeId);
+
+    @Query("""
+            select max(v.versionNumber)
+            from RecipeVersion v
+            where v.recipeId = :recipeId and v.snapshot = true and v.versionNumber <= :versionNumber
+            """)
+    Integer findLatestSnapshotNumber(@Param("recipeId") Long recipeId, @Param("versionNumber") int versionNumber);
+
+    List<RecipeVersion> findByRecipeIdAndVersionNumberBetweenOrderByVersionNumber(Long recipeId, int from, int to);
+}
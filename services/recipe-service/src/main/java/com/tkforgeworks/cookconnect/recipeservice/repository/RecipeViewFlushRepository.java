@@ -0,0 +1,17 @@
+package com.tkforgeworks.cookconnect.recipeservice.repository;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.RecipeViewFlush;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RecipeViewFlushRepository extends JpaRepository<RecipeViewFlush, String> {
+    @Modifying
+    @Query("delete from RecipeViewFlush f where f.flushedAt < :cutoff")
+    int deleteFlushedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
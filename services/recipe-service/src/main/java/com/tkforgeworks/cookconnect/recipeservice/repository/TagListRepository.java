@@ -2,8 +2,20 @@ package com.tkforgeworks.cookconnect.recipeservice.repository;
 
 import com.tkforgeworks.cookconnect.recipeservice.model.TagList;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface TagListRepository extends JpaRepository<TagList, Long> {
+    @Query("""
+            select l from TagList l
+            left join fetch l.tags i
+            left join fetch i.tag
+            where l.id in :ids
+            """)
+    List<TagList> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 }
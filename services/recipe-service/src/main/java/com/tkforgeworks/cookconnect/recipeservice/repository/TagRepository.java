@@ -1,12 +1,26 @@
 package com.tkforgeworks.cookconnect.recipeservice.repository;
 
 import com.tkforgeworks.cookconnect.recipeservice.model.Tag;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.DictionaryNameId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
     Optional<Tag> findByName(String name);
+
+    //name is unique, the group by only guards the pairing against rows written before the key existed
+    @Query("""
+            select new com.tkforgeworks.cookconnect.recipeservice.model.dto.DictionaryNameId(t.name, min(t.id))
+            from Tag t
+            where t.name in :names
+            group by t.name
+            """)
+    List<DictionaryNameId> findIdsByNameIn(@Param("names") Collection<String> names);
 }
@@ -0,0 +1,32 @@
+package com.tkforgeworks.cookconnect.recipeservice.search;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Map;
+
+/*
+Posting helpers for the bitmap indexes.
+    bitmaps are changed in place while the owning index holds its write lock, a change never copies a bitmap;
+    readers hold the read lock for the whole query and only hand out bitmaps they created themselves
+ */
+final class Bitmaps {
+    private Bitmaps() {
+    }
+
+    static <K> void add(Map<K, RoaringBitmap> postings, K key, int recipeId) {
+        postings.computeIfAbsent(key, ignored -> new RoaringBitmap()).add(recipeId);
+    }
+
+    //drops the entry once its bitmap is empty
+    static <K> void remove(Map<K, RoaringBitmap> postings, K key, int recipeId) {
+        postings.computeIfPresent(key, (ignored, bitmap) -> {
+            bitmap.remove(recipeId);
+            return bitmap.isEmpty() ? null : bitmap;
+        });
+    }
+
+    //run compression is only worth its pass once a bulk load is done, single adds keep existing runs
+    static void optimize(Iterable<RoaringBitmap> bitmaps) {
+        bitmaps.forEach(RoaringBitmap::runOptimize);
+    }
+}
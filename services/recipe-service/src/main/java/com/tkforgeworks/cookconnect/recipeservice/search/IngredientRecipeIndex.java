@@ -0,0 +1,200 @@
+package com.tkforgeworks.cookconnect.recipeservice.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/*
+Ingredient id -> recipe id compressed bitmaps for "cook with what I have" matching.
+    a query adds the bitmaps of the owned ingredients into bit-sliced counters (one bitmap per bit of the
+    per-recipe match count), then compares the count against recipes bucketed by ingredient count,
+    so ranking by missing ingredients is a handful of bitmap AND/XOR/ANDNOT operations and never a per-recipe loop.
+    bitmaps are changed in place under the write lock (see Bitmaps), a query holds the read lock throughout
+ */
+@Component
+public class IngredientRecipeIndex {
+    private static final int[] NO_INGREDIENTS = new int[0];
+    private final Map<Long, RoaringBitmap> recipesByIngredient = new ConcurrentHashMap<>();
+    private final Map<Integer, RoaringBitmap> recipesByIngredientCount = new ConcurrentHashMap<>();
+    //distinct ingredient ids per recipe, only needed to undo a recipe's postings on update
+    private final Map<Integer, long[]> ingredientsByRecipe = new ConcurrentHashMap<>();
+    private final RoaringBitmap restricted = new RoaringBitmap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public IngredientRecipeIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("search.ingredient-index.ingredients", recipesByIngredient, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("search.ingredient-index.bytes", this, IngredientRecipeIndex::sizeInBytes)
+                .register(meterRegistry);
+    }
+
+    /*
+    Replaces the postings of one recipe.
+        restricted marks recipes that are not publicly visible, they are only returned when the caller passes the filter
+     */
+    public void index(Long recipeId, Collection<Long> ingredientIds, boolean isRestricted) {
+        lock.writeLock().lock();
+        try {
+            replace(Math.toIntExact(recipeId), ingredientIds, isRestricted);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //one lock round for a whole chunk of recipes
+    public void index(Collection<RecipeDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            documents.forEach(document -> replace(Math.toIntExact(document.id()), document.ingredientIds(), !document.isPublic()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void optimize() {
+        lock.writeLock().lock();
+        try {
+            Bitmaps.optimize(recipesByIngredient.values());
+            Bitmaps.optimize(recipesByIngredientCount.values());
+            restricted.runOptimize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+    Returns one bitmap per missing-ingredient count, index 0 holding recipes that use only owned ingredients.
+        only recipes sharing at least one ingredient with the query are considered
+     */
+    public List<RoaringBitmap> match(Collection<Long> ownedIngredientIds, int maxMissing, IntPredicate restrictedFilter) {
+        lock.readLock().lock();
+        try {
+            return buckets(ownedIngredientIds, maxMissing, restrictedFilter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (RoaringBitmap bitmap : recipesByIngredient.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //PRIVATE
+    private void replace(int id, Collection<Long> ingredientIds, boolean isRestricted) {
+        long[] previous = ingredientsByRecipe.get(id);
+        if (previous != null) {
+            for (long ingredientId : previous) {
+                Bitmaps.remove(recipesByIngredient, ingredientId, id);
+            }
+            Bitmaps.remove(recipesByIngredientCount, previous.length, id);
+        }
+
+        long[] current = ingredientIds.stream().mapToLong(Long::longValue).distinct().toArray();
+        if (current.length == 0) {
+            ingredientsByRecipe.remove(id);
+        } else {
+            ingredientsByRecipe.put(id, current);
+            for (long ingredientId : current) {
+                Bitmaps.add(recipesByIngredient, ingredientId, id);
+            }
+            Bitmaps.add(recipesByIngredientCount, current.length, id);
+        }
+
+        if (isRestricted) {
+            restricted.add(id);
+        } else {
+            restricted.remove(id);
+        }
+    }
+
+    //every bitmap returned is built here, the postings themselves never leave the read lock
+    private List<RoaringBitmap> buckets(Collection<Long> ownedIngredientIds, int maxMissing, IntPredicate restrictedFilter) {
+        //matchCount[j] holds bit j of the number of owned ingredients each recipe uses
+        List<RoaringBitmap> matchCount = new ArrayList<>();
+        for (Long ingredientId : ownedIngredientIds) {
+            RoaringBitmap carry = recipesByIngredient.get(ingredientId);
+            for (int bit = 0; carry != null && !carry.isEmpty(); bit++) {
+                if (bit == matchCount.size()) {
+                    matchCount.add(carry);
+                    break;
+                }
+                RoaringBitmap slice = matchCount.get(bit);
+                matchCount.set(bit, RoaringBitmap.xor(slice, carry));
+                carry = RoaringBitmap.and(slice, carry);
+            }
+        }
+
+        List<RoaringBitmap> buckets = new ArrayList<>(maxMissing + 1);
+        for (int missing = 0; missing <= maxMissing; missing++) {
+            buckets.add(new RoaringBitmap());
+        }
+        if (matchCount.isEmpty()) {
+            return buckets;
+        }
+
+        RoaringBitmap candidates = FastAggregation.or(matchCount.iterator());
+        RoaringBitmap visible = visibleCandidates(candidates, restrictedFilter);
+        Map<Integer, RoaringBitmap> matchedExactly = new HashMap<>();
+        recipesByIngredientCount.forEach((ingredientCount, recipes) -> {
+            for (int missing = 0; missing <= maxMissing && missing < ingredientCount; missing++) {
+                RoaringBitmap matched = matchedExactly.computeIfAbsent(ingredientCount - missing,
+                        count -> countEquals(matchCount, visible, count));
+                if (!matched.isEmpty()) {
+                    buckets.get(missing).or(RoaringBitmap.and(recipes, matched));
+                }
+            }
+        });
+        return buckets;
+    }
+
+    private RoaringBitmap visibleCandidates(RoaringBitmap candidates, IntPredicate restrictedFilter) {
+        RoaringBitmap hidden = RoaringBitmap.and(candidates, restricted);
+        if (hidden.isEmpty()) {
+            return candidates;
+        }
+        RoaringBitmap visible = RoaringBitmap.andNot(candidates, hidden);
+        IntIterator iterator = hidden.getIntIterator();
+        while (iterator.hasNext()) {
+            int recipeId = iterator.next();
+            if (restrictedFilter.test(recipeId)) {
+                visible.add(recipeId);
+            }
+        }
+        return visible;
+    }
+
+    private static RoaringBitmap countEquals(List<RoaringBitmap> matchCount, RoaringBitmap candidates, int count) {
+        if (count >= 1 << matchCount.size()) {
+            return new RoaringBitmap();
+        }
+        RoaringBitmap result = candidates;
+        for (int bit = 0; bit < matchCount.size() && !result.isEmpty(); bit++) {
+            result = (count & (1 << bit)) != 0
+                    ? RoaringBitmap.and(result, matchCount.get(bit))
+                    : RoaringBitmap.andNot(result, matchCount.get(bit));
+        }
+        return result;
+    }
+}
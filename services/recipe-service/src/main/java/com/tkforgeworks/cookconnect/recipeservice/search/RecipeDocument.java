@@ -0,0 +1,82 @@
+package com.tkforgeworks.cookconnect.recipeservice.search;
+
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipeViewer;
+import com.tkforgeworks.cookconnect.recipeservice.model.IngredientListItem;
+import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+import com.tkforgeworks.cookconnect.recipeservice.model.TagListItem;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeSummaryDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/*
+Immutable snapshot of the searchable parts of a recipe.
+    terms maps each analyzed term to its field-weighted frequency in this recipe
+ */
+public record RecipeDocument(Long id,
+                             String title,
+                             String createdBy,
+                             String createdByUsername,
+                             VisibilitySettings visibility,
+                             Map<String, Float> terms,
+                             Set<Long> ingredientIds,
+                             Set<TagFacet> tags) {
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float TAG_WEIGHT = 2f;
+    private static final float INGREDIENT_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    //expects the ingredient and tag lists to be initialized (see RecipeGraphLoader)
+    public static RecipeDocument of(Recipe recipe) {
+        Map<String, Float> terms = new HashMap<>();
+        Set<Long> ingredientIds = new HashSet<>();
+        Set<TagFacet> tags = new HashSet<>();
+        addTerms(terms, recipe.getTitle(), TITLE_WEIGHT);
+        addTerms(terms, recipe.getDescription(), DESCRIPTION_WEIGHT);
+        if (recipe.getIngredientList() != null) {
+            for (IngredientListItem item : recipe.getIngredientList().getIngredients()) {
+                addTerms(terms, item.getIngredient().getName(), INGREDIENT_WEIGHT);
+                ingredientIds.add(item.getIngredient().getId());
+            }
+        }
+        if (recipe.getTagList() != null) {
+            for (TagListItem item : recipe.getTagList().getTags()) {
+                addTerms(terms, item.getTag().getName(), TAG_WEIGHT);
+                tags.add(TagFacet.of(item.getTag()));
+            }
+        }
+        return new RecipeDocument(
+                recipe.getId(),
+                recipe.getTitle(),
+                recipe.getCreatedBy(),
+                recipe.getCreatedByUsername(),
+                recipe.getRecipeVisibilitySettings(),
+                Map.copyOf(terms),
+                Set.copyOf(ingredientIds),
+                Set.copyOf(tags)
+        );
+    }
+
+    //legacy rows were written without a visibility and have always been listed publicly
+    public boolean isPublic() {
+        return visibility == null || visibility == VisibilitySettings.PUBLIC;
+    }
+
+    public boolean isListedFor(RecipeViewer viewer) {
+        return viewer.canList(createdBy, visibility);
+    }
+
+    //view counts change on every read and are not kept in the index, the caller looks them up per page
+    public RecipeSummaryDto toSummary(long viewCount) {
+        return new RecipeSummaryDto(id, title, createdByUsername, viewCount);
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String term : SearchAnalyzer.tokenize(text)) {
+            terms.merge(term, weight, Float::sum);
+        }
+    }
+}
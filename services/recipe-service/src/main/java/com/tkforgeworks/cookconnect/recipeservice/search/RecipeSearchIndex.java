@@ -0,0 +1,126 @@
+package com.tkforgeworks.cookconnect.recipeservice.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/*
+In-memory inverted index over recipe title, description, ingredient and tag names.
+    term -> (recipe id -> weight) postings are scored tf-idf style and scaled by the share of query terms matched;
+    writes are serialized, reads run lock-free against the concurrent maps and never touch the database
+ */
+@Component
+public class RecipeSearchIndex {
+    private static final Comparator<Hit> RANK = Comparator.comparingDouble(Hit::score)
+            .thenComparing(hit -> hit.document().id());
+    private final Map<Long, RecipeDocument> documents = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, Float>> postings = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public RecipeSearchIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("search.index.documents", documents, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("search.index.terms", postings, Map::size)
+                .register(meterRegistry);
+    }
+
+    public synchronized void index(RecipeDocument document) {
+        RecipeDocument previous = documents.put(document.id(), document);
+        if (previous != null) {
+            removePostings(previous);
+        }
+        document.terms().forEach((term, weight) -> postings
+                .computeIfAbsent(term, key -> new ConcurrentHashMap<>())
+                .put(document.id(), weight));
+    }
+
+    public synchronized void remove(Long recipeId) {
+        RecipeDocument previous = documents.remove(recipeId);
+        if (previous != null) {
+            removePostings(previous);
+        }
+    }
+
+    public RecipeDocument get(Long recipeId) {
+        return documents.get(recipeId);
+    }
+
+    public RecipeSearchResult search(Collection<String> queryTerms, Predicate<RecipeDocument> filter, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(queryTerms);
+        int documentCount = documents.size();
+        //per recipe: [summed weight * idf, matched term count]
+        Map<Long, double[]> scores = new HashMap<>();
+        for (String term : terms) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting == null || posting.isEmpty()) {
+                continue;
+            }
+            double idf = Math.log(1 + (double) documentCount / posting.size());
+            posting.forEach((recipeId, weight) -> {
+                double[] score = scores.computeIfAbsent(recipeId, key -> new double[2]);
+                score[0] += weight * idf;
+                score[1]++;
+            });
+        }
+
+        //bounded min-heap keeps only the hits up to the requested page
+        PriorityQueue<Hit> top = new PriorityQueue<>(RANK);
+        long totalHits = 0;
+        for (Map.Entry<Long, double[]> entry : scores.entrySet()) {
+            RecipeDocument document = documents.get(entry.getKey());
+            if (document == null || !filter.test(document)) {
+                continue;
+            }
+            totalHits++;
+            double[] score = entry.getValue();
+            top.offer(new Hit(document, score[0] * score[1] / terms.size()));
+            if (top.size() > offset + limit) {
+                top.poll();
+            }
+        }
+
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(RANK.reversed());
+        List<RecipeDocument> page = ranked.stream()
+                .skip(offset)
+                .map(Hit::document)
+                .toList();
+        return new RecipeSearchResult(page, totalHits);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    void markReady() {
+        ready = true;
+    }
+
+    //PRIVATE
+    private void removePostings(RecipeDocument document) {
+        for (String term : document.terms().keySet()) {
+            postings.computeIfPresent(term, (key, posting) -> {
+                posting.remove(document.id());
+                return posting.isEmpty() ? null : posting;
+            });
+        }
+    }
+
+    private record Hit(RecipeDocument document, double score) {}
+}
@@ -0,0 +1,155 @@
+package com.tkforgeworks.cookconnect.recipeservice.search;
+
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipeChangedEvent;
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipesImportedEvent;
+import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeBrowseRow;
+import com.tkforgeworks.cookconnect.recipeservice.repository.RecipeRepository;
+import com.tkforgeworks.cookconnect.recipeservice.service.RecipeGraphLoader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/*
+Keeps the search indexes in step with the database.
+    the indexes are rebuilt from MySQL once at startup on their own thread, after that every committed recipe change
+    is applied from the entity already in memory, so indexing never re-reads the recipe.
+    a failed rebuild is retried after the catch-up interval until it completes
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecipeSearchIndexer {
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final IngredientRecipeIndex ingredientRecipeIndex;
+    private final TagFacetIndex tagFacetIndex;
+    private final RecipeRepository recipeRepository;
+    private final RecipeGraphLoader recipeGraphLoader;
+
+    @Value("${tkforgeworks.search.rebuild-chunk-size:500}")
+    private int chunkSize;
+    @Value("${tkforgeworks.search.catch-up-interval:PT1M}")
+    private Duration catchUpInterval;
+    @Value("${tkforgeworks.search.rebuild-budget:PT2M}")
+    private Duration rebuildBudget;
+    private volatile LocalDateTime caughtUpTo;
+    private volatile Instant rebuildStarted;
+    private volatile boolean rebuildFailed;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRebuild() {
+        rebuildStarted = Instant.now();
+        Thread.ofPlatform().name("search-index-rebuild").daemon(true).start(this::rebuildUntilReady);
+    }
+
+    /*
+    Whether readiness should stop waiting for the rebuild.
+        true once it has failed or outrun its budget: the instance then serves everything but search at full
+        strength instead of staying OUT_OF_SERVICE, while the rebuild carries on in the background
+     */
+    public boolean isRebuildOverdue() {
+        Instant started = rebuildStarted;
+        return rebuildFailed || (started != null && Duration.between(started, Instant.now()).compareTo(rebuildBudget) > 0);
+    }
+
+    public boolean hasRebuildFailed() {
+        return rebuildFailed;
+    }
+
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        caughtUpTo = LocalDateTime.now();
+        Limit limit = Limit.of(chunkSize);
+        List<RecipeBrowseRow> chunk = recipeRepository.findNewest(limit);
+        while (!chunk.isEmpty()) {
+            index(recipeGraphLoader.loadRecipes(chunk.stream().map(RecipeBrowseRow::id).toList()));
+            RecipeBrowseRow last = chunk.get(chunk.size() - 1);
+            chunk = chunk.size() < chunkSize
+                    ? List.of()
+                    : recipeRepository.findNewestAfter(last.createdAt(), last.id(), limit);
+        }
+        ingredientRecipeIndex.optimize();
+        tagFacetIndex.optimize();
+        recipeSearchIndex.markReady();
+        log.info("Search index rebuilt with {} recipes in {} ms", recipeSearchIndex.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        index(RecipeDocument.of(event.recipe()));
+    }
+
+    @TransactionalEventListener
+    public void onRecipesImported(RecipesImportedEvent event) {
+        index(event.recipes());
+    }
+
+    public void reindex(Long recipeId) {
+        recipeGraphLoader.loadRecipe(recipeId).ifPresent(recipe -> index(RecipeDocument.of(recipe)));
+    }
+
+    /*
+    Re-reads recipes changed since the last sweep.
+        bounds how stale the indexes can get when a peer's invalidation never arrives;
+        the window overlaps by one interval to absorb clock skew between instances
+     */
+    @Scheduled(initialDelayString = "${tkforgeworks.search.catch-up-interval:PT1M}",
+            fixedDelayString = "${tkforgeworks.search.catch-up-interval:PT1M}")
+    public void catchUp() {
+        if (!recipeSearchIndex.isReady()) {
+            return;
+        }
+        LocalDateTime sweepStarted = LocalDateTime.now();
+        List<Long> changed = recipeRepository.findIdsUpdatedSince(caughtUpTo.minus(catchUpInterval));
+        for (int from = 0; from < changed.size(); from += chunkSize) {
+            index(recipeGraphLoader.loadRecipes(changed.subList(from, Math.min(from + chunkSize, changed.size()))));
+        }
+        caughtUpTo = sweepStarted;
+        log.debug("Search index caught up on {} changed recipes", changed.size());
+    }
+
+    //PRIVATE
+    private void rebuildUntilReady() {
+        while (!recipeSearchIndex.isReady()) {
+            try {
+                rebuild();
+                rebuildFailed = false;
+            } catch (RuntimeException e) {
+                rebuildFailed = true;
+                log.warn("Search index rebuild failed, retrying in {}: {}", catchUpInterval, e.getMessage());
+                try {
+                    Thread.sleep(catchUpInterval);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void index(RecipeDocument document) {
+        recipeSearchIndex.index(document);
+        ingredientRecipeIndex.index(document.id(), document.ingredientIds(), !document.isPublic());
+        tagFacetIndex.index(document);
+    }
+
+    //the bitmap indexes take their write lock once per chunk rather than once per recipe
+    private void index(Collection<Recipe> recipes) {
+        List<RecipeDocument> documents = recipes.stream().map(RecipeDocument::of).toList();
+        documents.forEach(recipeSearchIndex::index);
+        ingredientRecipeIndex.index(documents);
+        tagFacetIndex.index(documents);
+    }
+}
@@ -0,0 +1,6 @@
+package com.tkforgeworks.cookconnect.recipeservice.search;
+
+import java.util.List;
+
+public record RecipeSearchResult(List<RecipeDocument> documents,
+                                 long totalHits) {}
@@ -0,0 +1,13 @@
+package com.tkforgeworks.cookconnect.recipeservice.search;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.Tag;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.TagCategory;
+
+public record TagFacet(Long id,
+                       String name,
+                       TagCategory category) {
+    //uncategorized tags are grouped under OTHER
+    public static TagFacet of(Tag tag) {
+        return new TagFacet(tag.getId(), tag.getName(), tag.getCategory() == null ? TagCategory.OTHER : tag.getCategory());
+    }
+}
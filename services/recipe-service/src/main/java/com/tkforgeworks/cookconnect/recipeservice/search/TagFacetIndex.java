@@ -0,0 +1,184 @@
+package com.tkforgeworks.cookconnect.recipeservice.search;
+
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipeViewer;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.TagCategory;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.tkforgeworks.cookconnect.recipeservice.cache.TagDictionary.normalize;
+
+/*
+Tag id -> recipe id bitmaps for faceted browsing.
+    selected tags are OR-ed within a category and AND-ed across categories; each tag's count is taken against
+    the filter without its own category's selection, so siblings stay selectable. counts are bitmap
+    cardinalities, never GROUP BY queries. bitmaps are changed in place under the write lock (see Bitmaps)
+ */
+@Component
+public class TagFacetIndex {
+    private final Map<Long, RoaringBitmap> recipesByTag = new ConcurrentHashMap<>();
+    private final Map<Long, TagFacet> tags = new ConcurrentHashMap<>();
+    private final Map<String, TagFacet> tagsByName = new ConcurrentHashMap<>();
+    //tag ids and owner per recipe, only needed to undo a recipe's postings on update
+    private final Map<Integer, long[]> tagsByRecipe = new ConcurrentHashMap<>();
+    private final Map<Integer, String> restrictedOwners = new ConcurrentHashMap<>();
+    private final Map<String, RoaringBitmap> restrictedByOwner = new ConcurrentHashMap<>();
+    //the PROTECTED subset of restrictedByOwner, what followers of the owner may list
+    private final Map<String, RoaringBitmap> protectedByOwner = new ConcurrentHashMap<>();
+    private final RoaringBitmap publicRecipes = new RoaringBitmap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public TagFacetIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("search.tag-facets.tags", recipesByTag, Map::size)
+                .register(meterRegistry);
+    }
+
+    public void index(RecipeDocument document) {
+        index(List.of(document));
+    }
+
+    //one lock round for a whole chunk of recipes
+    public void index(Collection<RecipeDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            documents.forEach(this::replace);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void optimize() {
+        lock.writeLock().lock();
+        try {
+            Bitmaps.optimize(recipesByTag.values());
+            Bitmaps.optimize(restrictedByOwner.values());
+            Bitmaps.optimize(protectedByOwner.values());
+            publicRecipes.runOptimize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public TagFacet findTag(String name) {
+        return tagsByName.get(normalize(name));
+    }
+
+    public TagFacetResult facet(Collection<TagFacet> selected, RecipeViewer viewer) {
+        lock.readLock().lock();
+        try {
+            return facetUnderLock(selected, viewer);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //PRIVATE
+    private TagFacetResult facetUnderLock(Collection<TagFacet> selected, RecipeViewer viewer) {
+        RoaringBitmap universe = listedFor(viewer);
+
+        Map<TagCategory, List<RoaringBitmap>> selectedByCategory = new EnumMap<>(TagCategory.class);
+        for (TagFacet tag : selected) {
+            selectedByCategory.computeIfAbsent(tag.category(), category -> new ArrayList<>())
+                    .add(recipesByTag.getOrDefault(tag.id(), new RoaringBitmap()));
+        }
+        Map<TagCategory, RoaringBitmap> selections = new EnumMap<>(TagCategory.class);
+        selectedByCategory.forEach((category, bitmaps) -> selections.put(category, FastAggregation.or(bitmaps.iterator())));
+
+        RoaringBitmap matches = filter(universe, selections, null);
+        Map<TagCategory, RoaringBitmap> baseByCategory = new EnumMap<>(TagCategory.class);
+        Map<TagFacet, Long> counts = new HashMap<>();
+        recipesByTag.forEach((tagId, recipes) -> {
+            TagFacet tag = tags.get(tagId);
+            RoaringBitmap base = selections.containsKey(tag.category())
+                    ? baseByCategory.computeIfAbsent(tag.category(), category -> filter(universe, selections, category))
+                    : matches;
+            long count = RoaringBitmap.andCardinality(base, recipes);
+            if (count > 0) {
+                counts.put(tag, count);
+            }
+        });
+        //the result outlives the read lock, so it must not be one of the live bitmaps
+        return new TagFacetResult(matches == publicRecipes ? matches.clone() : matches, counts);
+    }
+
+    private void replace(RecipeDocument document) {
+        int id = Math.toIntExact(document.id());
+        long[] previous = tagsByRecipe.remove(id);
+        if (previous != null) {
+            for (long tagId : previous) {
+                Bitmaps.remove(recipesByTag, tagId, id);
+            }
+        }
+        String previousOwner = restrictedOwners.remove(id);
+        if (previousOwner != null) {
+            Bitmaps.remove(restrictedByOwner, previousOwner, id);
+            Bitmaps.remove(protectedByOwner, previousOwner, id);
+        }
+
+        long[] current = document.tags().stream().mapToLong(TagFacet::id).distinct().toArray();
+        for (TagFacet tag : document.tags()) {
+            tags.put(tag.id(), tag);
+            tagsByName.put(normalize(tag.name()), tag);
+            Bitmaps.add(recipesByTag, tag.id(), id);
+        }
+        if (current.length > 0) {
+            tagsByRecipe.put(id, current);
+        }
+
+        if (document.isPublic()) {
+            publicRecipes.add(id);
+        } else {
+            publicRecipes.remove(id);
+            if (document.createdBy() != null) {
+                restrictedOwners.put(id, document.createdBy());
+                Bitmaps.add(restrictedByOwner, document.createdBy(), id);
+                if (document.visibility() == VisibilitySettings.PROTECTED) {
+                    Bitmaps.add(protectedByOwner, document.createdBy(), id);
+                }
+            }
+        }
+    }
+
+    //public recipes, the viewer's own restricted ones and the protected ones of every author it follows
+    private RoaringBitmap listedFor(RecipeViewer viewer) {
+        if (viewer.isAnonymous()) {
+            return publicRecipes;
+        }
+        List<RoaringBitmap> listed = new ArrayList<>();
+        listed.add(publicRecipes);
+        RoaringBitmap owned = restrictedByOwner.get(viewer.userId());
+        if (owned != null) {
+            listed.add(owned);
+        }
+        for (String author : viewer.following()) {
+            RoaringBitmap followed = protectedByOwner.get(author);
+            if (followed != null) {
+                listed.add(followed);
+            }
+        }
+        return listed.size() == 1 ? publicRecipes : FastAggregation.or(listed.iterator());
+    }
+
+    private static RoaringBitmap filter(RoaringBitmap universe, Map<TagCategory, RoaringBitmap> selections, TagCategory excluded) {
+        RoaringBitmap result = universe;
+        for (Map.Entry<TagCategory, RoaringBitmap> selection : selections.entrySet()) {
+            if (selection.getKey() != excluded) {
+                result = RoaringBitmap.and(result, selection.getValue());
+            }
+        }
+        return result;
+    }
+}
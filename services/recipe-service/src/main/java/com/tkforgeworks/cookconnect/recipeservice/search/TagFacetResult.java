@@ -0,0 +1,8 @@
+package com.tkforgeworks.cookconnect.recipeservice.search;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Map;
+
+public record TagFacetResult(RoaringBitmap matches,
+                             Map<TagFacet, Long> counts) {}
@@ -0,0 +1,148 @@
+package com.tkforgeworks.cookconnect.recipeservice.service;
+
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipeViewer;
+import com.tkforgeworks.cookconnect.recipeservice.model.AuthorRecipeCount;
+import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.AuthorVisibilityCount;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+import com.tkforgeworks.cookconnect.recipeservice.repository.AuthorRecipeCountRepository;
+import com.tkforgeworks.cookconnect.recipeservice.repository.RecipeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+Maintains AuthorRecipeCount incrementally instead of counting an author's recipes on every profile view.
+    ensureCounted seeds an author's rows from the recipe table in its own transaction, before the write that
+    needs them opens; the write then only adjusts existing rows, in its own transaction. a writer that loses
+    the seeding race finds the rows the winner committed, and the winner's count already excludes
+    every write that was still open, so no recipe is counted twice or missed. only writes seed, reads of an
+    author without rows count the recipe table directly
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuthorRecipeCountService {
+    private static final int MAX_SEED_ATTEMPTS = 3;
+    private final AuthorRecipeCountRepository authorRecipeCountRepository;
+    private final RecipeRepository recipeRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    //GET
+    /*
+    The author's recipes the viewer may list, summed from at most one row per visibility.
+        reads never seed: an author without rows (no write since counting began, or no such author at all)
+        is counted straight from the recipe table, so looking up made-up ids writes nothing
+     */
+    public long countListed(String createdBy, RecipeViewer viewer) {
+        Map<VisibilitySettings, Long> counts = new EnumMap<>(VisibilitySettings.class);
+        List<AuthorRecipeCount> rows = authorRecipeCountRepository.findByCreatedBy(createdBy);
+        if (rows.isEmpty()) {
+            recipeRepository.countByVisibility(createdBy)
+                    .forEach(count -> counts.merge(visibilityOf(count.visibility()), count.recipeCount(), Long::sum));
+        } else {
+            rows.forEach(row -> counts.put(row.getKey().getVisibility(), row.getRecipeCount()));
+        }
+        return counts.entrySet().stream()
+                .filter(count -> viewer.canList(createdBy, count.getKey()))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    //POST
+    //must run outside the transaction of the write it prepares for, see the class comment
+    public void ensureCounted(Collection<String> authors) {
+        Set<String> wanted = new HashSet<>(authors);
+        wanted.remove(null);
+        if (wanted.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        for (int attempt = 1; attempt <= MAX_SEED_ATTEMPTS; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Set<String> missing = new HashSet<>(wanted);
+                    authorRecipeCountRepository.findCountedAuthors(wanted).forEach(missing::remove);
+                    List<AuthorRecipeCount> seeded = new ArrayList<>();
+                    for (String createdBy : missing) {
+                        seeded.addAll(seed(createdBy));
+                    }
+                    authorRecipeCountRepository.saveAllAndFlush(seeded);
+                });
+                return;
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Recipe count seeding collided with another writer, attempt {}", attempt);
+            }
+        }
+        throw new IllegalStateException(String.format("Unable to seed recipe counts for %d authors", wanted.size()));
+    }
+
+    //called inside the transaction that writes the recipes, after ensureCounted for their authors
+    public void recordCreated(Collection<Recipe> recipes) {
+        Map<String, Map<VisibilitySettings, Long>> deltas = new HashMap<>();
+        for (Recipe recipe : recipes) {
+            deltas.computeIfAbsent(recipe.getCreatedBy(), createdBy -> new EnumMap<>(VisibilitySettings.class))
+                    .merge(visibilityOf(recipe.getRecipeVisibilitySettings()), 1L, Long::sum);
+        }
+        deltas.forEach((createdBy, byVisibility) -> byVisibility.forEach((visibility, delta) -> adjust(createdBy, visibility, delta)));
+    }
+
+    //PUT
+    public void recordVisibilityChange(String createdBy, VisibilitySettings from, VisibilitySettings to) {
+        if (visibilityOf(from) == visibilityOf(to)) {
+            return;
+        }
+        adjust(createdBy, visibilityOf(from), -1);
+        adjust(createdBy, visibilityOf(to), 1);
+    }
+
+    //PRIVATE
+    private List<AuthorRecipeCount> seed(String createdBy) {
+        Map<VisibilitySettings, Long> counts = new EnumMap<>(VisibilitySettings.class);
+        for (VisibilitySettings visibility : VisibilitySettings.values()) {
+            counts.put(visibility, 0L);
+        }
+        for (AuthorVisibilityCount count : recipeRepository.countByVisibility(createdBy)) {
+            counts.merge(visibilityOf(count.visibility()), count.recipeCount(), Long::sum);
+        }
+        List<AuthorRecipeCount> rows = new ArrayList<>(counts.size());
+        counts.forEach((visibility, recipeCount) -> {
+            AuthorRecipeCount row = new AuthorRecipeCount();
+            row.setKey(new AuthorRecipeCount.Key(createdBy, visibility));
+            row.setRecipeCount(recipeCount);
+            row.setFresh(true);
+            rows.add(row);
+        });
+        return rows;
+    }
+
+    private void adjust(String createdBy, VisibilitySettings visibility, long delta) {
+        if (createdBy == null) {
+            return;
+        }
+        if (authorRecipeCountRepository.adjust(createdBy, visibility, delta) == 0) {
+            //only if the rows were removed by hand; they are seeded again on the next ensureCounted
+            log.warn("No recipe count row for {} {}, skipping a change of {}", createdBy, visibility, delta);
+        }
+    }
+
+    //rows written before visibility was required were always listed as public
+    private static VisibilitySettings visibilityOf(VisibilitySettings visibility) {
+        return visibility == null ? VisibilitySettings.PUBLIC : visibility;
+    }
+}
@@ -0,0 +1,37 @@
+package com.tkforgeworks.cookconnect.recipeservice.service;
+
+import com.tkforgeworks.cookconnect.recipeservice.cache.FollowingCache;
+import com.tkforgeworks.cookconnect.recipeservice.clients.SocialServiceFeignClient;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/*
+Resolves who a caller follows through FollowingCache, one social-service call per caller per ttl.
+    when social-service cannot be reached the caller is treated as following nobody, so PROTECTED
+    recipes stay hidden rather than being shown to the wrong people; that answer is not cached
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FollowingLookupService {
+    private final SocialServiceFeignClient socialServiceFeignClient;
+    private final FollowingCache followingCache;
+
+    //GET
+    @CircuitBreaker(name = "main")
+    @Retry(name = "main", fallbackMethod = "fallbackFollowingNobody")
+    public Set<String> getFollowing(String ccUserId) {
+        return followingCache.get(ccUserId, userId -> Set.copyOf(socialServiceFeignClient.getFollowingIds(userId)));
+    }
+
+    //PRIVATE
+    private Set<String> fallbackFollowingNobody(String ccUserId, Exception e) {
+        log.warn("Following lookup for {} failed, PROTECTED recipes stay hidden: {}", ccUserId, e.getMessage());
+        return Set.of();
+    }
+}
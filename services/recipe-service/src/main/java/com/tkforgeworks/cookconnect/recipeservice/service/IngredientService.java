@@ -1,5 +1,7 @@
 package com.tkforgeworks.cookconnect.recipeservice.service;
 
+import com.tkforgeworks.cookconnect.recipeservice.cache.IngredientDictionary;
+import com.tkforgeworks.cookconnect.recipeservice.common.NameCollation;
 import com.tkforgeworks.cookconnect.recipeservice.model.Ingredient;
 import com.tkforgeworks.cookconnect.recipeservice.model.IngredientList;
 import com.tkforgeworks.cookconnect.recipeservice.model.IngredientListItem;
@@ -7,34 +9,59 @@ import com.tkforgeworks.cookconnect.recipeservice.model.dto.IngredientDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.dto.IngredientListDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.dto.IngredientListItemDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.mapper.RecipeServiceMapper;
-import com.tkforgeworks.cookconnect.recipeservice.repository.IngredientListRepository;
 import com.tkforgeworks.cookconnect.recipeservice.repository.IngredientRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.CollationKey;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.tkforgeworks.cookconnect.recipeservice.cache.IngredientDictionary.normalize;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class IngredientService {
+    private static final int MAX_INSERT_ATTEMPTS = 3;
     private final IngredientRepository ingredientRepository;
-    private final IngredientListRepository ingredientListRepository;
 //    private final IngredientListItemRepository ingredientListItemRepository;
+    private final IngredientDictionary ingredientDictionary;
+    private final PlatformTransactionManager transactionManager;
     private final RecipeServiceMapper mapper;
 
     //INTERNAL
-    protected IngredientList createBlankList() {
-        IngredientList ingredientList = new IngredientList();
-        return ingredientListRepository.save(ingredientList);
+    /*
+    Lists are built unsaved, the recipe create persists them through its cascade
+        so the whole recipe graph is written in one flush and one commit
+     */
+    protected IngredientList newBlankList() {
+        return new IngredientList();
     }
 
     protected IngredientList createIngredientList(IngredientListDto ingredientListDto) {
-        IngredientList ingredientList = new IngredientList();
+        return createIngredientList(ingredientListDto, resolveIngredients(ingredientListDto.listItems().stream()
+                .map(IngredientListItemDto::ingredient)
+                .toList()));
+    }
 
+    //builds the list from ingredients already resolved by the caller, bulk imports resolve a whole chunk at once
+    protected IngredientList createIngredientList(IngredientListDto ingredientListDto, Map<String, Ingredient> ingredients) {
+        IngredientList ingredientList = new IngredientList();
         for(IngredientListItemDto itemDto: ingredientListDto.listItems()){
-            Ingredient ingredient = findOrCreateIngredient(itemDto.ingredient());
+            Ingredient ingredient = ingredients.get(normalize(itemDto.ingredient().name()));
             IngredientListItem ingredientListItem = new IngredientListItem();
             ingredientListItem.setIngredient(ingredient);
             ingredientListItem.setMeasurementValue(itemDto.measurementValue());
@@ -43,12 +70,173 @@ public class IngredientService {
             ingredientList.addListItem(ingredientListItem);
         }
 
-        return ingredientListRepository.save(ingredientList);
+        return ingredientList;
+    }
+
+    //an unsaved copy of a list shared with a fork, made when this recipe is about to edit it
+    protected IngredientList copyIngredientList(IngredientList source) {
+        IngredientList copy = new IngredientList();
+        for (IngredientListItem sourceItem : source.getIngredients()) {
+            IngredientListItem item = new IngredientListItem();
+            item.setIngredient(sourceItem.getIngredient());
+            item.setQuantity(sourceItem.getQuantity());
+            item.setMeasurementValue(sourceItem.getMeasurementValue());
+            copy.addListItem(item);
+        }
+        return copy;
+    }
+
+    /*
+    Applies an edited list onto the persistent one item by item, keyed by the ingredient row each name resolved to.
+        unchanged items keep their rows, so an edit only writes the items it actually touched
+     */
+    protected void updateIngredientList(IngredientList ingredientList, IngredientListDto ingredientListDto, Map<String, Ingredient> ingredients) {
+        Map<Long, IngredientListItemDto> requested = new LinkedHashMap<>();
+        if (ingredientListDto != null && ingredientListDto.listItems() != null) {
+            ingredientListDto.listItems().forEach(itemDto ->
+                    requested.put(ingredients.get(normalize(itemDto.ingredient().name())).getId(), itemDto));
+        }
+
+        ingredientList.getIngredients().removeIf(item -> !requested.containsKey(item.getIngredient().getId()));
+        Map<Long, IngredientListItem> current = new HashMap<>();
+        ingredientList.getIngredients().forEach(item -> current.put(item.getIngredient().getId(), item));
+        requested.forEach((ingredientId, itemDto) -> {
+            IngredientListItem item = current.get(ingredientId);
+            if (item == null) {
+                item = new IngredientListItem();
+                item.setIngredient(ingredients.get(normalize(itemDto.ingredient().name())));
+                ingredientList.addListItem(item);
+            }
+            item.setQuantity(itemDto.qty());
+            item.setMeasurementValue(itemDto.measurementValue());
+        });
+    }
+
+    /*
+    Resolves every ingredient of a create in bulk, keyed by normalized name.
+        dictionary hits cost nothing, the remaining names are one lookup query plus one batched insert
+     */
+    protected Map<String, Ingredient> resolveIngredients(Collection<IngredientDto> ingredientDtos) {
+        Map<String, IngredientDto> requested = new LinkedHashMap<>();
+        for (IngredientDto ingredientDto : ingredientDtos) {
+            if (ingredientDto == null || ingredientDto.name() == null || ingredientDto.name().isBlank()) {
+                throw new IllegalArgumentException("Ingredient name is required");
+            }
+            requested.putIfAbsent(normalize(ingredientDto.name()), ingredientDto);
+        }
+
+        Map<String, Ingredient> resolved = new HashMap<>(ingredientDictionary.getAll(requested.keySet()));
+        List<IngredientDto> missing = requested.entrySet().stream()
+                .filter(entry -> !resolved.containsKey(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+
+        if (!missing.isEmpty()) {
+            Map<String, Ingredient> loaded = findOrInsertIngredients(missing);
+            ingredientDictionary.putAll(loaded);
+            resolved.putAll(loaded);
+        }
+        log.debug("Resolved {} ingredients, {} from dictionary", requested.size(), requested.size() - missing.size());
+        return resolved;
+    }
+
+    /*
+    Read-only counterpart of resolveIngredients for queries, unknown names are left out instead of inserted
+     */
+    protected Map<String, Ingredient> findIngredients(Collection<String> names) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String name : names) {
+            if (name != null && !name.isBlank()) {
+                normalized.add(normalize(name));
+            }
+        }
+
+        Map<String, Ingredient> found = new HashMap<>(ingredientDictionary.getAll(normalized));
+        List<String> missing = normalized.stream().filter(name -> !found.containsKey(name)).toList();
+        if (!missing.isEmpty()) {
+            Map<String, Ingredient> loaded = findByNames(missing);
+            ingredientDictionary.putAll(loaded);
+            found.putAll(loaded);
+        }
+        return found;
+    }
+
+    public int preloadDictionary(int limit) {
+        List<Ingredient> ingredients = ingredientRepository.findMostUsed(Limit.of(limit));
+        ingredientDictionary.putAll(ingredients);
+        return ingredients.size();
     }
 
     //PRIVATE
-    private Ingredient findOrCreateIngredient(IngredientDto ingredientDto){
-        return ingredientRepository.findByName(ingredientDto.name())
-                .orElseGet(() -> ingredientRepository.save(mapper.toIngredient(ingredientDto)));
+    /*
+    Runs in its own short transaction so a unique-key collision only rolls back this attempt.
+        after a collision every name is resolved again in a transaction of its own: a concurrent create's
+        row is then read back, and names of this request the collation folds together find each other's row
+     */
+    private Map<String, Ingredient> findOrInsertIngredients(List<IngredientDto> ingredientDtos) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            return transactionTemplate.execute(status -> findOrInsert(ingredientDtos));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Ingredient insert collided with an existing row, resolving {} ingredients one at a time", ingredientDtos.size());
+        }
+
+        Map<String, Ingredient> resolved = new HashMap<>();
+        for (IngredientDto ingredientDto : ingredientDtos) {
+            resolved.putAll(findOrInsertIngredient(transactionTemplate, ingredientDto));
+        }
+        return resolved;
+    }
+
+    private Map<String, Ingredient> findOrInsertIngredient(TransactionTemplate transactionTemplate, IngredientDto ingredientDto) {
+        for (int attempt = 1; attempt <= MAX_INSERT_ATTEMPTS; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> findOrInsert(List.of(ingredientDto)));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Ingredient insert collided with a concurrent create, attempt {}", attempt);
+            }
+        }
+        throw new IllegalStateException(String.format("Unable to resolve ingredient %s", ingredientDto.name()));
+    }
+
+    private Map<String, Ingredient> findOrInsert(List<IngredientDto> ingredientDtos) {
+        Map<String, Ingredient> ingredients = findByNames(ingredientDtos.stream().map(IngredientDto::name).toList());
+        List<IngredientDto> toInsert = ingredientDtos.stream()
+                .filter(ingredientDto -> !ingredients.containsKey(normalize(ingredientDto.name())))
+                .toList();
+
+        List<Ingredient> inserted = ingredientRepository.saveAllAndFlush(toInsert.stream().map(this::toNewIngredient).toList());
+        for (int i = 0; i < toInsert.size(); i++) {
+            ingredients.put(normalize(toInsert.get(i).name()), inserted.get(i));
+        }
+        return ingredients;
+    }
+
+    //keyed by the normalized requested name, mapped to the row the database matched for that name
+    private Map<String, Ingredient> findByNames(Collection<String> names) {
+        List<String> requested = names.stream().map(String::trim).distinct().toList();
+        //the database matches by its collation, the row's name need not equal the name that found it
+        Map<CollationKey, Long> ids = new HashMap<>();
+        ingredientRepository.findIdsByNameIn(requested).forEach(row -> ids.putIfAbsent(NameCollation.key(row.name()), row.id()));
+        Map<Long, Ingredient> rows = new HashMap<>();
+        if (!ids.isEmpty()) {
+            ingredientRepository.findAllById(new HashSet<>(ids.values())).forEach(ingredient -> rows.put(ingredient.getId(), ingredient));
+        }
+
+        Map<String, Ingredient> found = new HashMap<>();
+        for (String name : requested) {
+            Ingredient ingredient = rows.get(ids.get(NameCollation.key(name)));
+            if (ingredient != null) {
+                found.putIfAbsent(normalize(name), ingredient);
+            }
+        }
+        return found;
+    }
+
+    private Ingredient toNewIngredient(IngredientDto ingredientDto) {
+        Ingredient ingredient = mapper.toIngredient(ingredientDto);
+        ingredient.setName(ingredientDto.name().trim());
+        return ingredient;
     }
 }
@@ -6,21 +6,22 @@ import com.tkforgeworks.cookconnect.recipeservice.model.InstructionListItem;
 import com.tkforgeworks.cookconnect.recipeservice.model.dto.InstructionListDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.dto.InstructionListItemDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.mapper.RecipeServiceMapper;
-import com.tkforgeworks.cookconnect.recipeservice.repository.InstructionListRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 public class InstructionService {
 //    private final InstructionRepository instructionRepository;
-    private final InstructionListRepository instructionListRepository;
 //    private final InstructionListItemRepository instructionListItemRepository;
     private final RecipeServiceMapper mapper;
     //INTERNAL
-    protected InstructionList createBlankList() {
-        InstructionList instructionList = new InstructionList();
-        return instructionListRepository.save(instructionList);
+    protected InstructionList newBlankList() {
+        return new InstructionList();
     }
 
     public InstructionList createInstructionList(InstructionListDto instructionListDto) {
@@ -34,6 +35,46 @@ public class InstructionService {
             instructionList.addListItem(listItem);
         }
 
-        return instructionListRepository.save(instructionList);
+        return instructionList;
+    }
+
+    //instructions are owned by their list item, so the copy gets its own instruction rows too
+    protected InstructionList copyInstructionList(InstructionList source) {
+        InstructionList copy = new InstructionList();
+        for (InstructionListItem sourceItem : source.getInstructions()) {
+            Instruction instruction = new Instruction();
+            instruction.setText(sourceItem.getInstruction().getText());
+            instruction.setNote(sourceItem.getInstruction().getNote());
+            InstructionListItem item = new InstructionListItem();
+            item.setStepNumber(sourceItem.getStepNumber());
+            item.setInstruction(instruction);
+            copy.addListItem(item);
+        }
+        return copy;
+    }
+
+    //keyed by step number, a step whose text and note are unchanged is left untouched
+    protected void updateInstructionList(InstructionList instructionList, InstructionListDto instructionListDto) {
+        Map<Integer, InstructionListItemDto> requested = new LinkedHashMap<>();
+        if (instructionListDto != null && instructionListDto.listItems() != null) {
+            instructionListDto.listItems().forEach(itemDto -> requested.put(itemDto.stepNumber(), itemDto));
+        }
+
+        instructionList.getInstructions().removeIf(item -> !requested.containsKey(item.getStepNumber()));
+        Map<Integer, InstructionListItem> current = new HashMap<>();
+        instructionList.getInstructions().forEach(item -> current.put(item.getStepNumber(), item));
+        requested.forEach((stepNumber, itemDto) -> {
+            Instruction edited = mapper.toInstruction(itemDto.instruction());
+            InstructionListItem item = current.get(stepNumber);
+            if (item == null) {
+                item = new InstructionListItem();
+                item.setStepNumber(stepNumber);
+                item.setInstruction(edited);
+                instructionList.addListItem(item);
+            } else {
+                item.getInstruction().setText(edited.getText());
+                item.getInstruction().setNote(edited.getNote());
+            }
+        });
     }
 }
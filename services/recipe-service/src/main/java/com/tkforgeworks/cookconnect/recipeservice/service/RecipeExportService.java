@@ -0,0 +1,123 @@
+package com.tkforgeworks.cookconnect.recipeservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tkforgeworks.cookconnect.recipeservice.common.AuthorizationHelper;
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipeViewer;
+import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+import com.tkforgeworks.cookconnect.recipeservice.model.RecipeReadModel;
+import com.tkforgeworks.cookconnect.recipeservice.model.mapper.RecipeServiceMapper;
+import com.tkforgeworks.cookconnect.recipeservice.repository.RecipeRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/*
+Streams recipes out as NDJSON, one RecipeDto per line, compressed on the fly.
+    every line carries the recipe's visibility, so an export fed back into POST /import keeps it.
+    ids are walked by keyset in chunks; each chunk is read from the recipe read model, falling back to
+    RecipeGraphLoader for recipes without a document, each lookup in its own short read-only transaction, so no connection is held while the client drains the response and
+    the persistence context is cleared before the next chunk; heap stays flat however many recipes there are
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecipeExportService {
+    public static final String NDJSON_ENTRY = "recipes.ndjson";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String VISIBILITY_FIELD = "\"recipeVisibilitySettings\":\"";
+    private final RecipeRepository recipeRepository;
+    private final RecipeGraphLoader recipeGraphLoader;
+    private final RecipeServiceMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final AuthorizationHelper authorizationHelper;
+    private final RecipeReadModelService recipeReadModelService;
+    private final RecipeVisibilityService recipeVisibilityService;
+
+    @Value("${tkforgeworks.export.chunk-size:500}")
+    private int chunkSize;
+
+    //GET
+    /*
+    Resolves who is asking on the request thread, the body itself is written later on an async thread.
+        admins export every recipe, everyone else what they may list: public recipes, their own and
+        protected recipes of the authors they follow, filtered in the id query
+     */
+    public StreamingResponseBody exportRecipes(String author, boolean zip) {
+        RecipeViewer viewer = authorizationHelper.isAdmin() ? null : recipeVisibilityService.currentViewer();
+        return out -> {
+            if (zip) {
+                ZipOutputStream zipOut = new ZipOutputStream(out);
+                zipOut.putNextEntry(new ZipEntry(NDJSON_ENTRY));
+                writeRecipes(author, viewer, zipOut);
+                zipOut.closeEntry();
+                zipOut.finish();
+            } else {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, BUFFER_SIZE);
+                writeRecipes(author, viewer, gzipOut);
+                gzipOut.finish();
+            }
+        };
+    }
+
+    //PRIVATE
+    private void writeRecipes(String author, RecipeViewer viewer, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        long written = 0;
+        Limit limit = Limit.of(chunkSize);
+        List<Long> ids = nextIds(author, viewer, 0L, limit);
+        while (!ids.isEmpty()) {
+            //read model documents already are RecipeDto JSON and go out as stored, unless written before they
+            //carried visibility; those are mapped afresh so every line can be imported back with its visibility
+            Map<Long, RecipeReadModel> documents = recipeReadModelService.findDocuments(ids);
+            List<Long> missing = new ArrayList<>();
+            for (Long id : ids) {
+                RecipeReadModel document = documents.get(id);
+                if (document == null || !document.getDocument().contains(VISIBILITY_FIELD)) {
+                    missing.add(id);
+                } else {
+                    out.write(document.getDocument().getBytes(StandardCharsets.UTF_8));
+                    out.write('\n');
+                    written++;
+                }
+            }
+            for (Recipe recipe : recipeGraphLoader.loadRecipes(missing)) {
+                out.write(objectMapper.writeValueAsBytes(mapper.toRecipeDto(recipe)));
+                out.write('\n');
+                written++;
+            }
+            //the async thread may still share the request's open-in-view persistence context
+            entityManager.clear();
+            out.flush();
+            ids = ids.size() < chunkSize ? List.of() : nextIds(author, viewer, ids.get(ids.size() - 1), limit);
+        }
+        log.info("Exported {} recipes{} in {} ms", written, author == null ? "" : " for " + author, System.currentTimeMillis() - started);
+    }
+
+    //a null viewer is an admin and sees every recipe
+    private List<Long> nextIds(String author, RecipeViewer viewer, Long afterId, Limit limit) {
+        boolean everyAuthor = author == null || author.isBlank();
+        if (viewer == null) {
+            return everyAuthor
+                    ? recipeRepository.findIdsAfter(afterId, limit)
+                    : recipeRepository.findIdsByCreatedByAfter(author, afterId, limit);
+        }
+        return everyAuthor
+                ? recipeRepository.findListedIdsAfter(afterId, viewer.userId(), viewer.followingOrNone(), limit)
+                : recipeRepository.findListedIdsByCreatedByAfter(author, afterId, viewer.userId(), viewer.followingOrNone(), limit);
+    }
+}
@@ -0,0 +1,52 @@
+package com.tkforgeworks.cookconnect.recipeservice.service;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+import com.tkforgeworks.cookconnect.recipeservice.repository.IngredientListRepository;
+import com.tkforgeworks.cookconnect.recipeservice.repository.InstructionListRepository;
+import com.tkforgeworks.cookconnect.recipeservice.repository.RecipeRepository;
+import com.tkforgeworks.cookconnect.recipeservice.repository.TagListRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/*
+Loads the full Recipe -> list -> item -> leaf graph with a fixed number of statements.
+    one query for the recipes and their list headers, then one fetch-join query per list type,
+    so the cost does not grow with the number of ingredients, steps or tags (no N+1, no cartesian product)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecipeGraphLoader {
+    private final RecipeRepository recipeRepository;
+    private final IngredientListRepository ingredientListRepository;
+    private final InstructionListRepository instructionListRepository;
+    private final TagListRepository tagListRepository;
+
+    @Transactional(readOnly = true)
+    public Optional<Recipe> loadRecipe(Long recipeId) {
+        return loadRecipes(List.of(recipeId)).stream().findFirst();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Recipe> loadRecipes(Collection<Long> recipeIds) {
+        if (recipeIds.isEmpty()) {
+            return List.of();
+        }
+        List<Recipe> recipes = recipeRepository.findWithListsByIdIn(recipeIds);
+        if (recipes.isEmpty()) {
+            return recipes;
+        }
+        //results attach to the list instances already in the persistence context, initializing their collections
+        ingredientListRepository.findWithItemsByIdIn(recipes.stream().map(r -> r.getIngredientList().getId()).toList());
+        instructionListRepository.findWithItemsByIdIn(recipes.stream().map(r -> r.getInstructionList().getId()).toList());
+        tagListRepository.findWithItemsByIdIn(recipes.stream().map(r -> r.getTagList().getId()).toList());
+        log.debug("Loaded recipe graph for {} recipes", recipes.size());
+        return recipes;
+    }
+}
@@ -0,0 +1,305 @@
+package com.tkforgeworks.cookconnect.recipeservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipesImportedEvent;
+import com.tkforgeworks.cookconnect.recipeservice.common.dto.UserServiceResponseDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.Ingredient;
+import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+import com.tkforgeworks.cookconnect.recipeservice.model.Tag;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.IngredientDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.IngredientListItemDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeCreateDetailedRequestDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeImportErrorDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeImportReportDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.TagDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.TagListItemDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+import com.tkforgeworks.cookconnect.recipeservice.model.mapper.RecipeServiceMapper;
+import com.tkforgeworks.cookconnect.recipeservice.repository.RecipeRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/*
+Streams newline-delimited RecipeCreateDetailedRequestDto JSON into the database.
+    lines are read one at a time and gathered into chunks; each chunk resolves its users, ingredients
+    and tags in bulk, then one transaction writes the whole chunk through JDBC batching.
+    when a chunk transaction fails it is retried one recipe per transaction so only the bad lines are reported.
+    lines may also carry recipeVisibilitySettings, as every exported line does, and keep it; the endpoint is admin-only
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecipeImportService {
+    private final RecipeRepository recipeRepository;
+    private final IngredientService ingredientService;
+    private final InstructionService instructionService;
+    private final TagService tagService;
+    private final UserLookupService userLookupService;
+    private final RecipeServiceMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final AuthorRecipeCountService authorRecipeCountService;
+
+    @Value("${tkforgeworks.import.chunk-size:500}")
+    private int chunkSize;
+    @Value("${tkforgeworks.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    //POST
+    public RecipeImportReportDto importRecipes(InputStream ndjson) {
+        ObjectReader reader = objectMapper.readerFor(RecipeCreateDetailedRequestDto.class);
+        ObjectReader visibilityReader = objectMapper.readerFor(ImportedVisibility.class);
+        ImportProgress progress = new ImportProgress(maxReportedErrors);
+        List<ImportLine> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                progress.lines++;
+                try {
+                    JsonNode node = objectMapper.readTree(line);
+                    RecipeCreateDetailedRequestDto recipeDto = reader.readValue(node);
+                    validate(recipeDto);
+                    chunk.add(new ImportLine(lineNumber, recipeDto, visibilityReader.<ImportedVisibility>readValue(node).recipeVisibilitySettings()));
+                } catch (JsonProcessingException e) {
+                    progress.fail(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                } catch (IllegalArgumentException e) {
+                    progress.fail(lineNumber, e.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    importChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(String.format("Import stream failed at line %d after %d recipes were imported",
+                    lineNumber + 1, progress.imported), e);
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, progress);
+        }
+
+        RecipeImportReportDto report = progress.toReport();
+        log.info("Imported {} of {} recipes in {} ms ({} recipes/s), {} failed",
+                report.imported(), report.lines(), report.elapsedMillis(), Math.round(report.recipesPerSecond()), report.failed());
+        return report;
+    }
+
+    //PRIVATE
+    private void importChunk(List<ImportLine> chunk, ImportProgress progress) {
+        long started = System.nanoTime();
+        ResolvedChunk resolved;
+        try {
+            resolved = resolve(chunk);
+        } catch (RuntimeException e) {
+            log.warn("Unable to resolve references for an import chunk of {} recipes: {}", chunk.size(), e.getMessage());
+            chunk.forEach(line -> progress.fail(line.number(), e.getMessage()));
+            return;
+        }
+
+        //a line naming a user the user service does not know fails on its own instead of failing the chunk
+        List<ImportLine> known = new ArrayList<>(chunk.size());
+        for (ImportLine line : chunk) {
+            String createdBy = line.recipeDto().createdBy();
+            if (createdBy != null && !resolved.users().containsKey(createdBy)) {
+                progress.fail(line.number(), String.format("Unknown user %s", createdBy));
+            } else {
+                known.add(line);
+            }
+        }
+        if (known.isEmpty()) {
+            return;
+        }
+
+        try {
+            persist(known.stream().map(line -> toRecipe(line, resolved)).toList());
+            progress.imported += known.size();
+        } catch (RuntimeException e) {
+            log.warn("Import chunk of {} recipes failed, retrying one recipe per transaction: {}", known.size(), e.getMessage());
+            for (ImportLine line : known) {
+                try {
+                    persist(List.of(toRecipe(line, resolved)));
+                    progress.imported++;
+                } catch (RuntimeException lineFailure) {
+                    progress.fail(line.number(), rootMessage(lineFailure));
+                }
+            }
+        }
+        log.debug("Import chunk of {} recipes took {} ms", chunk.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    //one user call, one ingredient resolve and one tag resolve for the whole chunk
+    private ResolvedChunk resolve(List<ImportLine> chunk) {
+        List<String> userIds = new ArrayList<>();
+        List<IngredientDto> ingredients = new ArrayList<>();
+        List<TagDto> tags = new ArrayList<>();
+        for (ImportLine line : chunk) {
+            RecipeCreateDetailedRequestDto recipeDto = line.recipeDto();
+            if (recipeDto.createdBy() != null) {
+                userIds.add(recipeDto.createdBy());
+            }
+            if (recipeDto.ingredientList() != null) {
+                recipeDto.ingredientList().listItems().forEach(item -> ingredients.add(item.ingredient()));
+            }
+            if (recipeDto.tagList() != null) {
+                recipeDto.tagList().listItems().forEach(item -> tags.add(item.tag()));
+            }
+        }
+        return new ResolvedChunk(
+                userIds.isEmpty() ? Map.of() : userLookupService.getUsers(userIds),
+                ingredients.isEmpty() ? Map.of() : ingredientService.resolveIngredients(ingredients),
+                tags.isEmpty() ? Map.of() : tagService.resolveTags(tags)
+        );
+    }
+
+    //built fresh for every attempt, a rolled back persist leaves generated ids behind on the entities
+    private Recipe toRecipe(ImportLine line, ResolvedChunk resolved) {
+        RecipeCreateDetailedRequestDto recipeDto = line.recipeDto();
+        UserServiceResponseDto user = recipeDto.createdBy() == null
+                ? userLookupService.anonymousUser()
+                : resolved.users().get(recipeDto.createdBy());
+        Recipe recipe = mapper.toRecipeFromCreateDetailed(recipeDto);
+        recipe.setRecipeVisibilitySettings(line.visibility());
+        recipe.setCreatedBy(user.id());
+        recipe.setCreatedByUsername(user.username());
+        recipe.setIngredientList(recipeDto.ingredientList() == null
+                ? ingredientService.newBlankList()
+                : ingredientService.createIngredientList(recipeDto.ingredientList(), resolved.ingredients()));
+        recipe.setInstructionList(recipeDto.instructionList() == null
+                ? instructionService.newBlankList()
+                : instructionService.createInstructionList(recipeDto.instructionList()));
+        recipe.setTagList(recipeDto.tagList() == null
+                ? tagService.newBlankList()
+                : tagService.createTagList(recipeDto.tagList(), resolved.tags()));
+        return recipe;
+    }
+
+    private void persist(List<Recipe> recipes) {
+        authorRecipeCountService.ensureCounted(recipes.stream().map(Recipe::getCreatedBy).toList());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                recipeRepository.saveAll(recipes);
+                recipeRepository.flush();
+                authorRecipeCountService.recordCreated(recipes);
+                applicationEventPublisher.publishEvent(new RecipesImportedEvent(recipes));
+            });
+        } finally {
+            //open-in-view keeps one persistence context for the whole request, drop what this chunk attached
+            entityManager.clear();
+        }
+    }
+
+    private void validate(RecipeCreateDetailedRequestDto recipeDto) {
+        if (recipeDto == null || recipeDto.title() == null || recipeDto.title().isBlank()) {
+            throw new IllegalArgumentException("Recipe title is required");
+        }
+        if (recipeDto.ingredientList() != null) {
+            if (recipeDto.ingredientList().listItems() == null) {
+                throw new IllegalArgumentException("Ingredient list items are required");
+            }
+            for (IngredientListItemDto item : recipeDto.ingredientList().listItems()) {
+                if (item == null || item.ingredient() == null || item.ingredient().name() == null || item.ingredient().name().isBlank()) {
+                    throw new IllegalArgumentException("Ingredient name is required");
+                }
+            }
+        }
+        if (recipeDto.instructionList() != null) {
+            if (recipeDto.instructionList().listItems() == null) {
+                throw new IllegalArgumentException("Instruction list items are required");
+            }
+            if (recipeDto.instructionList().listItems().stream().anyMatch(Objects::isNull)) {
+                throw new IllegalArgumentException("Instruction list items must not be null");
+            }
+        }
+        if (recipeDto.tagList() != null) {
+            if (recipeDto.tagList().listItems() == null) {
+                throw new IllegalArgumentException("Tag list items are required");
+            }
+            for (TagListItemDto item : recipeDto.tagList().listItems()) {
+                if (item == null || item.tag() == null || item.tag().name() == null || item.tag().name().isBlank()) {
+                    throw new IllegalArgumentException("Tag name is required");
+                }
+            }
+        }
+    }
+
+    private static String rootMessage(Throwable failure) {
+        Throwable root = failure;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() == null ? root.getClass().getSimpleName() : root.getMessage();
+    }
+
+    //visibility is null for lines without one, @PrePersist makes those PUBLIC
+    private record ImportLine(long number, RecipeCreateDetailedRequestDto recipeDto, VisibilitySettings visibility) {}
+
+    //exported lines carry the recipe's visibility next to the fields the create DTO reads
+    private record ImportedVisibility(VisibilitySettings recipeVisibilitySettings) {}
+
+    private record ResolvedChunk(Map<String, UserServiceResponseDto> users,
+                                 Map<String, Ingredient> ingredients,
+                                 Map<String, Tag> tags) {}
+
+    private static final class ImportProgress {
+        private final long started = System.nanoTime();
+        private final int maxReportedErrors;
+        private final List<RecipeImportErrorDto> errors = new ArrayList<>();
+        private long lines;
+        private long imported;
+        private long failed;
+
+        private ImportProgress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RecipeImportErrorDto(line, message));
+            }
+        }
+
+        private RecipeImportReportDto toReport() {
+            long elapsedNanos = System.nanoTime() - started;
+            double seconds = elapsedNanos / 1_000_000_000d;
+            return new RecipeImportReportDto(
+                    lines,
+                    imported,
+                    failed,
+                    elapsedNanos / 1_000_000,
+                    seconds > 0 ? imported / seconds : 0,
+                    List.copyOf(errors),
+                    failed > errors.size()
+            );
+        }
+    }
+}
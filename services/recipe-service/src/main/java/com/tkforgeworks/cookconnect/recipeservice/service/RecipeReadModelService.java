@@ -0,0 +1,276 @@
+package com.tkforgeworks.cookconnect.recipeservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tkforgeworks.cookconnect.recipeservice.cache.CachedRecipe;
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipeChangedEvent;
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipesImportedEvent;
+import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+import com.tkforgeworks.cookconnect.recipeservice.model.RecipeReadModel;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeReadModelReportDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.mapper.RecipeServiceMapper;
+import com.tkforgeworks.cookconnect.recipeservice.repository.RecipeReadModelRepository;
+import com.tkforgeworks.cookconnect.recipeservice.repository.RecipeRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+Keeps the recipe read model in step with the normalized tables and serves reads from it.
+    every recipe write materializes its RecipeDto document just before its transaction commits, so the
+    document commits or rolls back with the write. recipes without a document yet (written before the read
+    model existed) are left to callers to load through RecipeGraphLoader until rebuild() writes them
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecipeReadModelService {
+    private final RecipeReadModelRepository recipeReadModelRepository;
+    private final RecipeRepository recipeRepository;
+    private final RecipeGraphLoader recipeGraphLoader;
+    private final RecipeServiceMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${tkforgeworks.read-model.chunk-size:500}")
+    private int chunkSize;
+    @Value("${tkforgeworks.read-model.max-reported-ids:1000}")
+    private int maxReportedIds;
+    @Value("${tkforgeworks.read-model.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    //GET
+    public Optional<CachedRecipe> findRecipe(Long recipeId) {
+        return recipeReadModelRepository.findById(recipeId).map(this::toCachedRecipe);
+    }
+
+    //one IN lookup on the primary key, ids without a document are simply absent from the map
+    public Map<Long, RecipeReadModel> findDocuments(Collection<Long> recipeIds) {
+        if (recipeIds.isEmpty()) {
+            return Map.of();
+        }
+        return recipeReadModelRepository.findByRecipeIdIn(recipeIds).stream()
+                .collect(Collectors.toMap(RecipeReadModel::getRecipeId, Function.identity()));
+    }
+
+    public CachedRecipe toCachedRecipe(RecipeReadModel readModel) {
+        return new CachedRecipe(readDocument(readModel.getDocument()), readModel.getRecipeUpdatedAt(), readModel.getVisibility());
+    }
+
+    //compares every document against a fresh mapping of its recipe, writes nothing
+    public RecipeReadModelReportDto check() {
+        RecipeReadModelReportDto report = reconcile(false);
+        log.info("Read model check: {} recipes, {} consistent, {} missing, {} stale, {} orphaned in {} ms",
+                report.recipes(), report.consistent(), report.missing(), report.stale(), report.orphaned(), report.elapsedMillis());
+        return report;
+    }
+
+    //POST
+    //rewrites every document from the normalized tables and removes documents of recipes that no longer exist
+    public RecipeReadModelReportDto rebuild() {
+        RecipeReadModelReportDto report = reconcile(true);
+        log.info("Read model rebuilt: {} documents written, {} removed, {} had been missing and {} stale, in {} ms",
+                report.written(), report.removed(), report.missing(), report.stale(), report.elapsedMillis());
+        return report;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        //creation and update timestamps are generated on flush, the document records updatedAt
+        entityManager.flush();
+        Recipe recipe = event.recipe();
+        RecipeReadModel readModel = recipeReadModelRepository.findById(recipe.getId())
+                .orElseGet(() -> newReadModel(recipe.getId()));
+        fill(readModel, recipe, mapper.toRecipeDto(recipe));
+        recipeReadModelRepository.save(readModel);
+    }
+
+    //imported recipes are always new, their documents go out as one batched insert
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onRecipesImported(RecipesImportedEvent event) {
+        List<RecipeReadModel> readModels = new ArrayList<>(event.recipes().size());
+        for (Recipe recipe : event.recipes()) {
+            RecipeReadModel readModel = newReadModel(recipe.getId());
+            fill(readModel, recipe, mapper.toRecipeDto(recipe));
+            readModels.add(readModel);
+        }
+        recipeReadModelRepository.saveAll(readModels);
+    }
+
+    //PRIVATE
+    /*
+    Walks recipes by id keyset one chunk per transaction, then walks the documents left without a recipe.
+        a document is consistent when it reads back equal to the recipe mapped now and its copied
+        createdBy and visibility match; sets compare by content so item order in the JSON does not matter
+     */
+    private RecipeReadModelReportDto reconcile(boolean rebuild) {
+        ReconcileProgress progress = new ReconcileProgress(maxReportedIds);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(!rebuild);
+        Limit limit = Limit.of(chunkSize);
+
+        List<Long> ids = recipeRepository.findIdsAfter(0L, limit);
+        while (!ids.isEmpty()) {
+            List<Long> chunk = ids;
+            try {
+                transactionTemplate.executeWithoutResult(status -> reconcileChunk(chunk, rebuild, progress));
+            } finally {
+                entityManager.clear();
+            }
+            ids = ids.size() < chunkSize ? List.of() : recipeRepository.findIdsAfter(ids.get(ids.size() - 1), limit);
+        }
+
+        List<Long> orphans = recipeReadModelRepository.findOrphanIdsAfter(0L, limit);
+        while (!orphans.isEmpty()) {
+            List<Long> chunk = orphans;
+            progress.orphaned += chunk.size();
+            chunk.forEach(progress::inconsistent);
+            if (rebuild) {
+                Integer removed = transactionTemplate.execute(status -> recipeReadModelRepository.deleteByRecipeIdIn(chunk));
+                progress.removed += removed == null ? 0 : removed;
+            }
+            orphans = orphans.size() < chunkSize ? List.of() : recipeReadModelRepository.findOrphanIdsAfter(chunk.get(chunk.size() - 1), limit);
+        }
+        return progress.toReport();
+    }
+
+    private void reconcileChunk(List<Long> ids, boolean rebuild, ReconcileProgress progress) {
+        Map<Long, RecipeReadModel> documents = findDocuments(ids);
+        List<RecipeReadModel> toWrite = new ArrayList<>();
+        for (Recipe recipe : recipeGraphLoader.loadRecipes(ids)) {
+            progress.recipes++;
+            RecipeDto expected = mapper.toRecipeDto(recipe);
+            RecipeReadModel readModel = documents.get(recipe.getId());
+            if (readModel == null) {
+                progress.missing++;
+                progress.inconsistent(recipe.getId());
+                readModel = newReadModel(recipe.getId());
+            } else if (matches(readModel, recipe, expected)) {
+                progress.consistent++;
+            } else {
+                progress.stale++;
+                progress.inconsistent(recipe.getId());
+            }
+            if (rebuild) {
+                fill(readModel, recipe, expected);
+                toWrite.add(readModel);
+            }
+        }
+        recipeReadModelRepository.saveAll(toWrite);
+        progress.written += toWrite.size();
+    }
+
+    private boolean matches(RecipeReadModel readModel, Recipe recipe, RecipeDto expected) {
+        if (!Objects.equals(readModel.getCreatedBy(), recipe.getCreatedBy())
+                || readModel.getVisibility() != recipe.getRecipeVisibilitySettings()) {
+            return false;
+        }
+        try {
+            return expected.equals(readDocument(readModel.getDocument()));
+        } catch (IllegalStateException e) {
+            log.warn("Unreadable read model document for recipe {}: {}", recipe.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private RecipeReadModel newReadModel(Long recipeId) {
+        RecipeReadModel readModel = new RecipeReadModel();
+        readModel.setRecipeId(recipeId);
+        readModel.setFresh(true);
+        return readModel;
+    }
+
+    private void fill(RecipeReadModel readModel, Recipe recipe, RecipeDto recipeDto) {
+        String document = writeDocument(recipeDto);
+        if (document.length() > RecipeReadModel.DOCUMENT_LENGTH) {
+            throw new IllegalArgumentException(String.format("Recipe %s is too large to store in the read model", recipe.getId()));
+        }
+        readModel.setDocument(document);
+        readModel.setCreatedBy(recipe.getCreatedBy());
+        readModel.setVisibility(recipe.getRecipeVisibilitySettings());
+        readModel.setRecipeUpdatedAt(recipe.getUpdatedAt());
+        readModel.setMaterializedAt(LocalDateTime.now());
+    }
+
+    private String writeDocument(RecipeDto recipeDto) {
+        try {
+            return objectMapper.writeValueAsString(recipeDto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(String.format("Unable to serialize recipe %s for the read model", recipeDto.id()), e);
+        }
+    }
+
+    private RecipeDto readDocument(String document) {
+        try {
+            return objectMapper.readValue(document, RecipeDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read recipe read model document", e);
+        }
+    }
+
+    private static final class ReconcileProgress {
+        private final long started = System.currentTimeMillis();
+        private final int maxReportedIds;
+        private final List<Long> inconsistentIds = new ArrayList<>();
+        private long recipes;
+        private long consistent;
+        private long missing;
+        private long stale;
+        private long orphaned;
+        private long written;
+        private long removed;
+
+        private ReconcileProgress(int maxReportedIds) {
+            this.maxReportedIds = maxReportedIds;
+        }
+
+        private void inconsistent(Long recipeId) {
+            if (inconsistentIds.size() < maxReportedIds) {
+                inconsistentIds.add(recipeId);
+            }
+        }
+
+        private RecipeReadModelReportDto toReport() {
+            return new RecipeReadModelReportDto(
+                    recipes,
+                    consistent,
+                    missing,
+                    stale,
+                    orphaned,
+                    written,
+                    removed,
+                    List.copyOf(inconsistentIds),
+                    missing + stale + orphaned > inconsistentIds.size(),
+                    System.currentTimeMillis() - started
+            );
+        }
+    }
+}
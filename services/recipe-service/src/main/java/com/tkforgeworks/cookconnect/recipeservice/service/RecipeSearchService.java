@@ -0,0 +1,166 @@
+package com.tkforgeworks.cookconnect.recipeservice.service;
+
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipeViewer;
+import com.tkforgeworks.cookconnect.recipeservice.errorhandler.SearchIndexNotReadyException;
+import com.tkforgeworks.cookconnect.recipeservice.model.Ingredient;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeFacetPageDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeIngredientMatchDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeSummaryDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.TagFacetCountDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.TagCategory;
+import com.tkforgeworks.cookconnect.recipeservice.search.IngredientRecipeIndex;
+import com.tkforgeworks.cookconnect.recipeservice.search.RecipeDocument;
+import com.tkforgeworks.cookconnect.recipeservice.search.RecipeSearchIndex;
+import com.tkforgeworks.cookconnect.recipeservice.search.RecipeSearchResult;
+import com.tkforgeworks.cookconnect.recipeservice.search.SearchAnalyzer;
+import com.tkforgeworks.cookconnect.recipeservice.search.TagFacet;
+import com.tkforgeworks.cookconnect.recipeservice.search.TagFacetIndex;
+import com.tkforgeworks.cookconnect.recipeservice.search.TagFacetResult;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecipeSearchService {
+    private static final int MAX_QUERY_TERMS = 10;
+    private static final int MAX_OWNED_INGREDIENTS = 50;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final IngredientRecipeIndex ingredientRecipeIndex;
+    private final TagFacetIndex tagFacetIndex;
+    private final IngredientService ingredientService;
+    private final RecipeVisibilityService recipeVisibilityService;
+    private final RecipeViewService recipeViewService;
+
+    //GET
+    public Page<RecipeSummaryDto> searchRecipes(String query, int page, int size) {
+        requireReady();
+        List<String> terms = SearchAnalyzer.tokenize(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one searchable term");
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            throw new IllegalArgumentException(String.format("Search query may contain at most %d terms", MAX_QUERY_TERMS));
+        }
+
+        RecipeViewer viewer = recipeVisibilityService.currentViewer();
+        RecipeSearchResult result = recipeSearchIndex.search(terms, document -> document.isListedFor(viewer), page * size, size);
+        log.debug("Search '{}' matched {} recipes", query, result.totalHits());
+        return new PageImpl<>(
+                toSummaries(result.documents()),
+                PageRequest.of(page, size),
+                result.totalHits()
+        );
+    }
+
+    /*
+    Ranks recipes by how many of their ingredients the caller does not have.
+        recipes using only owned ingredients come first, then those missing one, two, ... up to maxMissing;
+        within a bucket the newest recipes come first
+     */
+    public Page<RecipeIngredientMatchDto> matchIngredients(List<String> ingredientNames, int maxMissing, int page, int size) {
+        requireReady();
+        if (ingredientNames == null || ingredientNames.isEmpty()) {
+            throw new IllegalArgumentException("At least one ingredient is required");
+        }
+        if (ingredientNames.size() > MAX_OWNED_INGREDIENTS) {
+            throw new IllegalArgumentException(String.format("At most %d ingredients may be given", MAX_OWNED_INGREDIENTS));
+        }
+
+        RecipeViewer viewer = recipeVisibilityService.currentViewer();
+        List<Long> ingredientIds = ingredientService.findIngredients(ingredientNames).values().stream()
+                .map(Ingredient::getId)
+                .toList();
+        List<RoaringBitmap> buckets = ingredientRecipeIndex.match(ingredientIds, maxMissing, recipeId -> {
+            RecipeDocument document = recipeSearchIndex.get((long) recipeId);
+            return document != null && document.isListedFor(viewer);
+        });
+
+        long offset = (long) page * size;
+        long totalHits = 0;
+        List<RecipeIngredientMatchDto> content = new ArrayList<>(size);
+        for (int missing = 0; missing < buckets.size(); missing++) {
+            RoaringBitmap bucket = buckets.get(missing);
+            long bucketSize = bucket.getLongCardinality();
+            if (content.size() < size && offset < totalHits + bucketSize) {
+                int bucketMissing = missing;
+                newestFirst(bucket, Math.max(0, offset - totalHits), size - content.size()).forEach(document ->
+                        content.add(new RecipeIngredientMatchDto(document.id(), document.title(), document.createdByUsername(), bucketMissing)));
+            }
+            totalHits += bucketSize;
+        }
+        return new PageImpl<>(content, PageRequest.of(page, size), totalHits);
+    }
+
+    /*
+    Filters recipes by tags with a count next to every tag that still has matches.
+        tags of one category widen the filter (OR), tags of different categories narrow it (AND)
+     */
+    public RecipeFacetPageDto browseFacets(List<String> tagNames, int page, int size) {
+        requireReady();
+        List<TagFacet> selected = new ArrayList<>();
+        for (String tagName : tagNames == null ? List.<String>of() : tagNames) {
+            TagFacet tag = tagFacetIndex.findTag(tagName);
+            if (tag == null) {
+                throw new IllegalArgumentException(String.format("Unknown tag %s", tagName));
+            }
+            selected.add(tag);
+        }
+
+        TagFacetResult result = tagFacetIndex.facet(selected, recipeVisibilityService.currentViewer());
+        Map<TagFacet, Long> counts = new HashMap<>(result.counts());
+        selected.forEach(tag -> counts.putIfAbsent(tag, 0L));
+        Map<TagCategory, List<TagFacetCountDto>> facets = new EnumMap<>(TagCategory.class);
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<TagFacet, Long>comparingByValue().reversed()
+                        .thenComparing(entry -> entry.getKey().name()))
+                .forEach(entry -> facets.computeIfAbsent(entry.getKey().category(), category -> new ArrayList<>())
+                        .add(new TagFacetCountDto(entry.getKey().name(), entry.getValue(), selected.contains(entry.getKey()))));
+
+        List<RecipeSummaryDto> content = toSummaries(newestFirst(result.matches(), (long) page * size, size));
+        return new RecipeFacetPageDto(content, page, size, result.matches().getLongCardinality(), facets);
+    }
+
+    //PRIVATE
+    //a partly rebuilt index would answer with a silently incomplete result, the client is told to retry instead
+    private void requireReady() {
+        if (!recipeSearchIndex.isReady()) {
+            throw new SearchIndexNotReadyException("Search is starting up, please try again shortly");
+        }
+    }
+
+    //the index holds no view counts, one lookup fetches them for the whole page
+    private List<RecipeSummaryDto> toSummaries(List<RecipeDocument> documents) {
+        Map<Long, Long> viewCounts = recipeViewService.findViewCounts(documents.stream().map(RecipeDocument::id).toList());
+        return documents.stream()
+                .map(document -> document.toSummary(viewCounts.getOrDefault(document.id(), 0L)))
+                .toList();
+    }
+
+    private List<RecipeDocument> newestFirst(RoaringBitmap recipeIds, long skip, int limit) {
+        List<RecipeDocument> documents = new ArrayList<>(limit);
+        IntIterator iterator = recipeIds.getReverseIntIterator();
+        for (long skipped = 0; skipped < skip && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (documents.size() < limit && iterator.hasNext()) {
+            RecipeDocument document = recipeSearchIndex.get((long) iterator.next());
+            if (document != null) {
+                documents.add(document);
+            }
+        }
+        return documents;
+    }
+}
@@ -1,25 +1,62 @@
 package com.tkforgeworks.cookconnect.recipeservice.service;
 
-import com.tkforgeworks.cookconnect.recipeservice.clients.UserServiceFeignClient;
+import com.tkforgeworks.cookconnect.recipeservice.cache.AuthorPageCache;
+import com.tkforgeworks.cookconnect.recipeservice.cache.CachedRecipe;
+import com.tkforgeworks.cookconnect.recipeservice.cache.RecipeDetailCache;
+import com.tkforgeworks.cookconnect.recipeservice.cache.RecipePageCache;
+import com.tkforgeworks.cookconnect.recipeservice.common.AuthorizationHelper;
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipeChangedEvent;
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipeCursor;
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipeViewer;
+import com.tkforgeworks.cookconnect.recipeservice.common.UserContextHolder;
 import com.tkforgeworks.cookconnect.recipeservice.common.dto.UserServiceResponseDto;
+import com.tkforgeworks.cookconnect.recipeservice.errorhandler.RecipeNotFoundException;
+import com.tkforgeworks.cookconnect.recipeservice.model.Ingredient;
+import com.tkforgeworks.cookconnect.recipeservice.model.IngredientList;
+import com.tkforgeworks.cookconnect.recipeservice.model.InstructionList;
 import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+import com.tkforgeworks.cookconnect.recipeservice.model.RecipeReadModel;
+import com.tkforgeworks.cookconnect.recipeservice.model.Tag;
+import com.tkforgeworks.cookconnect.recipeservice.model.TagList;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.AuthorRecipeSliceDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.IngredientListItemDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeBrowseRow;
 import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeCreateDetailedRequestDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeCreateSimpleRequestDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeListShares;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeSliceDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeSummaryDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeUpdateRequestDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.TagListItemDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
 import com.tkforgeworks.cookconnect.recipeservice.model.mapper.RecipeServiceMapper;
 import com.tkforgeworks.cookconnect.recipeservice.repository.RecipeRepository;
-import feign.FeignException;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
+import com.tkforgeworks.cookconnect.recipeservice.version.RecipeVersionState;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -31,12 +68,145 @@ public class RecipeService {
     private final IngredientService ingredientService;
     private final InstructionService instructionService;
     private final RecipeServiceMapper mapper;
-    private final UserServiceFeignClient  userServiceFeignClient;
+    private final UserLookupService userLookupService;
+    private final RecipeGraphLoader recipeGraphLoader;
+    private final RecipeDetailCache recipeDetailCache;
+    private final RecipePageCache recipePageCache;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final RecipeVersionService recipeVersionService;
+    private final AuthorizationHelper authorizationHelper;
+    private final RecipeReadModelService recipeReadModelService;
+    private final RecipeVisibilityService recipeVisibilityService;
+    private final AuthorRecipeCountService authorRecipeCountService;
+    private final AuthorPageCache authorPageCache;
 
 
     //GET
+    public RecipeDto getRecipe(Long recipeId) {
+        return getCachedRecipe(recipeId).recipe();
+    }
+
+    //the recipe with the version and visibility its ETag and Cache-Control are derived from
+    public CachedRecipe getCachedRecipe(Long recipeId) {
+        CachedRecipe recipe = recipeDetailCache.get(recipeId, this::loadRecipe);
+        //a recipe the caller may not see answers exactly like one that does not exist
+        if (!canView(recipe)) {
+            throw new RecipeNotFoundException(String.format("Recipe with id %s not found", recipeId));
+        }
+        return recipe;
+    }
+
+    //memory only, null unless the detail cache holds the recipe; lets a conditional GET be answered without a query
+    public CachedRecipe peekCachedRecipe(Long recipeId) {
+        CachedRecipe recipe = recipeDetailCache.get(recipeId);
+        return recipe == null || !canView(recipe) ? null : recipe;
+    }
+
+    //changes with every committed recipe write seen by this instance, see RecipePageCache.version()
+    public String getBrowseVersion() {
+        return recipePageCache.version();
+    }
+
+    //public recipes only, the same for every caller so the page can be cached and shared
     public Page<RecipeSummaryDto> getAllRecipesSummary(Pageable pageable) {
-        return recipeRepository.findAll(pageable).map(mapper::toRecipeSummaryDto);
+        return recipeRepository.findPublicSummaries(pageable);
+    }
+
+    //served from RecipePageCache as ready-to-write JSON, the key covers page, size and sort
+    public byte[] getAllRecipesSummaryJson(Pageable pageable) {
+        String key = recipePageCache.key(String.format("%d:%d:%s", pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort()));
+        return recipePageCache.get(key, () -> toJson(getAllRecipesSummary(pageable)));
+    }
+
+    /*
+    Public recipes newest first by keyset.
+        the page's ids come off the visibility index alone, then its rows are read by primary key
+     */
+    public RecipeSliceDto getRecipesSummarySlice(String cursor, int size) {
+        //fetch one extra id to learn if another page exists without a count(*)
+        Limit limit = Limit.of(size + 1);
+        List<Long> ids = cursor == null || cursor.isBlank()
+                ? recipeRepository.findPublicNewestIds(limit)
+                : findPublicNewestIdsAfter(RecipeCursor.decode(cursor), limit);
+
+        boolean hasNext = ids.size() > size;
+        List<RecipeBrowseRow> page = findBrowseRows(hasNext ? ids.subList(0, size) : ids);
+        String nextCursor = null;
+        if (hasNext) {
+            RecipeBrowseRow last = page.get(page.size() - 1);
+            nextCursor = new RecipeCursor(last.createdAt(), last.id()).encode();
+        }
+
+        return new RecipeSliceDto(
+                page.stream().map(RecipeBrowseRow::toSummary).toList(),
+                page.size(),
+                hasNext,
+                nextCursor
+        );
+    }
+
+    /*
+    An author's recipes newest first by keyset, with how many of them the caller may list in total.
+        what is listed only depends on whether the caller is the author, follows the author or neither,
+        so the first page of each of those audiences is shared through AuthorPageCache
+     */
+    public AuthorRecipeSliceDto getAuthorRecipes(String createdBy, String cursor, int size) {
+        RecipeViewer viewer = recipeVisibilityService.currentViewer();
+        if (cursor != null && !cursor.isBlank()) {
+            return loadAuthorRecipes(createdBy, RecipeCursor.decode(cursor), size, viewer);
+        }
+        String key = authorPageCache.key(createdBy, audience(createdBy, viewer) + ":" + size);
+        return authorPageCache.get(key, () -> loadAuthorRecipes(createdBy, null, size, viewer));
+    }
+
+    //every fork below the recipe however deep, or only its direct forks; one indexed prefix scan either way
+    public Page<RecipeSummaryDto> getForks(Long recipeId, boolean direct, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        Recipe recipe = findViewableRecipe(recipeId);
+        RecipeViewer viewer = recipeVisibilityService.currentViewer();
+        return direct
+                ? recipeRepository.findListedDirectForks(recipeId, viewer.userId(), viewer.followingOrNone(), pageable)
+                : recipeRepository.findListedForksByPathPrefix(lineagePrefix(recipe) + "%", viewer.userId(), viewer.followingOrNone(), pageable);
+    }
+
+    //root first, read straight off the fork path with one lookup
+    public List<RecipeSummaryDto> getAncestors(Long recipeId) {
+        Recipe recipe = findViewableRecipe(recipeId);
+        if (recipe.getForkPath() == null) {
+            return List.of();
+        }
+        List<Long> ancestorIds = Arrays.stream(recipe.getForkPath().split("/"))
+                .filter(id -> !id.isEmpty())
+                .map(Long::valueOf)
+                .toList();
+        RecipeViewer viewer = recipeVisibilityService.currentViewer();
+        Map<Long, RecipeSummaryDto> ancestors = recipeRepository.findListedSummariesByIdIn(ancestorIds, viewer.userId(), viewer.followingOrNone()).stream()
+                .collect(Collectors.toMap(RecipeSummaryDto::id, Function.identity()));
+        //an ancestor deleted since the fork, or one the caller may not list, simply drops out of the chain
+        return ancestorIds.stream()
+                .map(ancestors::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    //seeds the detail cache from the read model in one lookup, used to warm a fresh instance
+    public int warmRecipeDetails(List<Long> recipeIds) {
+        Map<Long, Long> generations = recipeIds.stream()
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), recipeDetailCache::generation));
+        Map<Long, RecipeReadModel> documents = recipeReadModelService.findDocuments(recipeIds);
+        documents.forEach((recipeId, document) ->
+                recipeDetailCache.put(recipeId, recipeReadModelService.toCachedRecipe(document), generations.get(recipeId)));
+        List<Recipe> recipes = recipeGraphLoader.loadRecipes(recipeIds.stream()
+                .filter(recipeId -> !documents.containsKey(recipeId))
+                .toList());
+        for (Recipe recipe : recipes) {
+            recipeDetailCache.put(recipe.getId(), new CachedRecipe(mapper.toRecipeDto(recipe), recipe.getUpdatedAt(), recipe.getRecipeVisibilitySettings()),
+                    generations.get(recipe.getId()));
+        }
+        return documents.size() + recipes.size();
     }
 
     //POST
@@ -45,11 +215,11 @@ public class RecipeService {
         Recipe toCreate = mapper.toRecipeFromCreateSimple(recipeCreateSimpleRequestDto);
         toCreate.setCreatedBy(fetchedUser.id());
         toCreate.setCreatedByUsername(fetchedUser.username());
-        toCreate.setIngredientList(ingredientService.createBlankList());
-        toCreate.setInstructionList(instructionService.createBlankList());
-        toCreate.setTagList(tagService.createBlankList());
+        toCreate.setIngredientList(ingredientService.newBlankList());
+        toCreate.setInstructionList(instructionService.newBlankList());
+        toCreate.setTagList(tagService.newBlankList());
 
-        return mapper.toRecipeDto(recipeRepository.save(toCreate));
+        return persistRecipe(toCreate);
     }
 
 
@@ -61,48 +231,274 @@ public class RecipeService {
         toCreate.setCreatedByUsername(fetchedUser.username());
 
         if(recipeCreateDetailedRequestDto.ingredientList() == null){
-            toCreate.setIngredientList(ingredientService.createBlankList());
+            toCreate.setIngredientList(ingredientService.newBlankList());
         } else {
             toCreate.setIngredientList(ingredientService.createIngredientList(recipeCreateDetailedRequestDto.ingredientList()));
         }
         if(recipeCreateDetailedRequestDto.instructionList() == null){
-            toCreate.setInstructionList(instructionService.createBlankList());
+            toCreate.setInstructionList(instructionService.newBlankList());
         } else {
             toCreate.setInstructionList(instructionService.createInstructionList(recipeCreateDetailedRequestDto.instructionList()));
         }
         if(recipeCreateDetailedRequestDto.tagList() == null){
-            toCreate.setTagList(tagService.createBlankList());
+            toCreate.setTagList(tagService.newBlankList());
         } else {
             toCreate.setTagList(tagService.createTagList(recipeCreateDetailedRequestDto.tagList()));
         }
 
-        return mapper.toRecipeDto(recipeRepository.save(toCreate));
+        return persistRecipe(toCreate);
+    }
+    /*
+    Forks a recipe for the calling user by reference.
+        the fork points at its parent's ingredient, instruction and tag lists instead of copying them,
+        so forking writes a single recipe row; whichever side edits a shared list first gets its own copy.
+        lineage is kept as a materialized path of ancestor ids, root first.
+        forks of someone else's non-public recipe start out PRIVATE
+     */
+    public RecipeDto forkRecipe(Long recipeId) {
+        UserServiceResponseDto forkedBy = getUserExt(UserContextHolder.getUserContext().getUserId());
+        authorRecipeCountService.ensureCounted(List.of(forkedBy.id()));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        return transactionTemplate.execute(status -> {
+            //the row lock updateRecipe takes before it decides whether a list is shared, an edit of the parent
+            //either commits before the fork reads the lists or sees the fork sharing them and copies
+            recipeRepository.findForUpdateById(recipeId)
+                    .orElseThrow(() -> new RecipeNotFoundException(String.format("Recipe with id %s not found", recipeId)));
+            Recipe parent = recipeGraphLoader.loadRecipe(recipeId).orElseThrow();
+            if (!recipeVisibilityService.canView(parent.getCreatedBy(), parent.getRecipeVisibilitySettings())) {
+                throw new RecipeNotFoundException(String.format("Recipe with id %s not found", recipeId));
+            }
+            String forkPath = lineagePrefix(parent);
+            if (forkPath.length() > Recipe.FORK_PATH_LENGTH) {
+                throw new IllegalArgumentException(String.format("Recipe %s is too deeply forked to fork again", recipeId));
+            }
+
+            Recipe fork = new Recipe();
+            fork.setTitle(parent.getTitle());
+            fork.setDescription(parent.getDescription());
+            fork.setSkillLevel(parent.getSkillLevel());
+            fork.setRecipeVisibilitySettings(forkVisibility(parent, forkedBy.id()));
+            fork.setCreatedBy(forkedBy.id());
+            fork.setCreatedByUsername(forkedBy.username());
+            fork.setForkedFrom(parent.getId());
+            fork.setForkPath(forkPath);
+            fork.setIngredientList(parent.getIngredientList());
+            fork.setInstructionList(parent.getInstructionList());
+            fork.setTagList(parent.getTagList());
+
+            Recipe saved = recipeRepository.save(fork);
+            authorRecipeCountService.recordCreated(List.of(saved));
+            applicationEventPublisher.publishEvent(new RecipeChangedEvent(saved));
+            return mapper.toRecipeDto(saved);
+        });
     }
     //PUT
+    /*
+    Replaces the recipe's content and records the edit as a new version.
+        ingredients and tags are resolved before the transaction, like on create; inside it the recipe row
+        is locked, lists are updated item by item and the version is written in the same commit.
+        an edit that changes nothing writes no version and leaves updatedAt alone
+     */
+    public RecipeDto updateRecipe(Long recipeId, RecipeUpdateRequestDto recipeUpdateRequestDto) {
+        if (recipeUpdateRequestDto.title() == null || recipeUpdateRequestDto.title().isBlank()) {
+            throw new IllegalArgumentException("Recipe title is required");
+        }
+        Map<String, Ingredient> ingredients = recipeUpdateRequestDto.ingredientList() == null || recipeUpdateRequestDto.ingredientList().listItems() == null
+                ? Map.of()
+                : ingredientService.resolveIngredients(recipeUpdateRequestDto.ingredientList().listItems().stream()
+                        .map(IngredientListItemDto::ingredient)
+                        .toList());
+        Map<String, Tag> tags = recipeUpdateRequestDto.tagList() == null || recipeUpdateRequestDto.tagList().listItems() == null
+                ? Map.of()
+                : tagService.resolveTags(recipeUpdateRequestDto.tagList().listItems().stream()
+                        .map(TagListItemDto::tag)
+                        .toList());
+        String editedBy = UserContextHolder.getUserContext().getUserId();
+        if (recipeUpdateRequestDto.recipeVisibilitySettings() != null) {
+            //seeds from committed rows on its own connection, so before this edit holds one; the recipe counts under its old visibility there
+            recipeRepository.findCreatedByById(recipeId)
+                    .ifPresent(createdBy -> authorRecipeCountService.ensureCounted(List.of(createdBy)));
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        RecipeDto updated = transactionTemplate.execute(status -> {
+            recipeRepository.findForUpdateById(recipeId)
+                    .orElseThrow(() -> new RecipeNotFoundException(String.format("Recipe with id %s not found", recipeId)));
+            Recipe recipe = recipeGraphLoader.loadRecipe(recipeId).orElseThrow();
+            if (!authorizationHelper.canAccessUserResource(recipe.getCreatedBy())) {
+                //callers who may not see the recipe learn no more than that it does not exist
+                if (!recipeVisibilityService.canView(recipe.getCreatedBy(), recipe.getRecipeVisibilitySettings())) {
+                    throw new RecipeNotFoundException(String.format("Recipe with id %s not found", recipeId));
+                }
+                throw new AccessDeniedException(String.format("Not allowed to edit recipe %s", recipeId));
+            }
+            //a PUT without visibility leaves it as it is, clients echoing an older document must not publish the recipe
+            VisibilitySettings visibility = recipeUpdateRequestDto.recipeVisibilitySettings() == null
+                    ? recipe.getRecipeVisibilitySettings()
+                    : recipeUpdateRequestDto.recipeVisibilitySettings();
+
+            RecipeVersionState before = RecipeVersionState.of(recipe);
+            //lists still shared with a fork or parent are edited on a private copy
+            RecipeListShares shares = recipeRepository.findListShares(recipeId);
+            IngredientList sharedIngredients = shares.ingredientList() > 1 ? recipe.getIngredientList() : null;
+            InstructionList sharedInstructions = shares.instructionList() > 1 ? recipe.getInstructionList() : null;
+            TagList sharedTags = shares.tagList() > 1 ? recipe.getTagList() : null;
+            if (sharedIngredients != null) {
+                recipe.setIngredientList(ingredientService.copyIngredientList(sharedIngredients));
+            }
+            if (sharedInstructions != null) {
+                recipe.setInstructionList(instructionService.copyInstructionList(sharedInstructions));
+            }
+            if (sharedTags != null) {
+                recipe.setTagList(tagService.copyTagList(sharedTags));
+            }
+
+            recipe.setTitle(recipeUpdateRequestDto.title());
+            recipe.setDescription(recipeUpdateRequestDto.description());
+            recipe.setSkillLevel(recipeUpdateRequestDto.skillLevel());
+            recipe.setRecipeVisibilitySettings(visibility);
+            ingredientService.updateIngredientList(recipe.getIngredientList(), recipeUpdateRequestDto.ingredientList(), ingredients);
+            instructionService.updateInstructionList(recipe.getInstructionList(), recipeUpdateRequestDto.instructionList());
+            tagService.updateTagList(recipe.getTagList(), recipeUpdateRequestDto.tagList(), tags);
+
+            //a copied list the edit left as it was goes back to sharing, its copy is never written
+            RecipeVersionState after = RecipeVersionState.of(recipe);
+            if (sharedIngredients != null && after.ingredients().equals(before.ingredients())) {
+                recipe.setIngredientList(sharedIngredients);
+            }
+            if (sharedInstructions != null && after.instructions().equals(before.instructions())) {
+                recipe.setInstructionList(sharedInstructions);
+            }
+            if (sharedTags != null && after.tags().equals(before.tags())) {
+                recipe.setTagList(sharedTags);
+            }
+
+            authorRecipeCountService.recordVisibilityChange(recipe.getCreatedBy(), before.visibility(), after.visibility());
+            if (recipeVersionService.recordEdit(recipeId, before, after, editedBy)) {
+                //list-only edits leave the recipe row clean, touch it so updatedAt reflects every edit
+                recipe.setUpdatedAt(LocalDateTime.now());
+                applicationEventPublisher.publishEvent(new RecipeChangedEvent(recipe));
+            }
+            return mapper.toRecipeDto(recipe);
+        });
+        recipeDetailCache.evict(recipeId);
+        return updated;
+    }
     //DELETE
     //PRIVATE - UTILITY
-    private UserServiceResponseDto createAnonymousUser(){
-        return new UserServiceResponseDto("anonymous","anonymous",false,false);
+    /*
+    Writes the recipe and its unsaved lists in one transaction.
+        the user lookup and ingredient/tag resolution happen before it opens,
+        so no remote call or dictionary insert holds locks on the recipe rows
+     */
+    private RecipeDto persistRecipe(Recipe toCreate) {
+        authorRecipeCountService.ensureCounted(List.of(toCreate.getCreatedBy()));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        return transactionTemplate.execute(status -> {
+            Recipe saved = recipeRepository.save(toCreate);
+            authorRecipeCountService.recordCreated(List.of(saved));
+            applicationEventPublisher.publishEvent(new RecipeChangedEvent(saved));
+            return mapper.toRecipeDto(saved);
+        });
     }
 
-    @CircuitBreaker(name = "main", fallbackMethod = "fallbackUserServiceGetExt")
-    @Retry(name = "main")
-    private UserServiceResponseDto getUserExt(String ccUserId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    //a recipe someone else shared with a limited audience must not reach the forker's audience, or be republished by them
+    private VisibilitySettings forkVisibility(Recipe parent, String forkedBy) {
+        VisibilitySettings visibility = parent.getRecipeVisibilitySettings();
+        if (visibility == VisibilitySettings.PUBLIC || Objects.equals(parent.getCreatedBy(), forkedBy)) {
+            return visibility;
+        }
+        return VisibilitySettings.PRIVATE;
+    }
 
-        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
-            return createAnonymousUser();
+    private List<Long> findPublicNewestIdsAfter(RecipeCursor cursor, Limit limit) {
+        return recipeRepository.findPublicNewestIdsAfter(cursor.createdAt(), cursor.id(), limit);
+    }
+
+    //the IN lookup returns rows in no particular order, put them back in the order the ids were listed
+    private List<RecipeBrowseRow> findBrowseRows(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, RecipeBrowseRow> rows = recipeRepository.findBrowseRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(RecipeBrowseRow::id, Function.identity()));
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private AuthorRecipeSliceDto loadAuthorRecipes(String createdBy, RecipeCursor cursor, int size, RecipeViewer viewer) {
+        //fetch one extra row to learn if another page exists, the total comes from AuthorRecipeCount
+        Limit limit = Limit.of(size + 1);
+        List<RecipeBrowseRow> recipes = cursor == null
+                ? recipeRepository.findListedByAuthorNewest(createdBy, viewer.userId(), viewer.followingOrNone(), limit)
+                : recipeRepository.findListedByAuthorNewestAfter(createdBy, cursor.createdAt(), cursor.id(),
+                        viewer.userId(), viewer.followingOrNone(), limit);
+
+        boolean hasNext = recipes.size() > size;
+        List<RecipeBrowseRow> page = hasNext ? recipes.subList(0, size) : recipes;
+        String nextCursor = null;
+        if (hasNext) {
+            RecipeBrowseRow last = page.get(page.size() - 1);
+            nextCursor = new RecipeCursor(last.createdAt(), last.id()).encode();
         }
+        return new AuthorRecipeSliceDto(
+                createdBy,
+                authorRecipeCountService.countListed(createdBy, viewer),
+                page.stream().map(RecipeBrowseRow::toSummary).toList(),
+                page.size(),
+                hasNext,
+                nextCursor
+        );
+    }
 
-        try{
-            return userServiceFeignClient.getUserById(ccUserId);
-        } catch(FeignException.NotFound e) {
-            return createAnonymousUser();
+    private static String audience(String createdBy, RecipeViewer viewer) {
+        if (viewer.isAuthor(createdBy)) {
+            return "author";
         }
+        return viewer.following().contains(createdBy) ? "follower" : "public";
+    }
+
+    private Recipe findViewableRecipe(Long recipeId) {
+        return recipeRepository.findById(recipeId)
+                .filter(recipe -> recipeVisibilityService.canView(recipe.getCreatedBy(), recipe.getRecipeVisibilitySettings()))
+                .orElseThrow(() -> new RecipeNotFoundException(String.format("Recipe with id %s not found", recipeId)));
+    }
+
+    private boolean canView(CachedRecipe recipe) {
+        return recipeVisibilityService.canView(recipe.recipe().createdBy(), recipe.visibility());
+    }
+
+    //one primary key lookup on the read model, the full graph only for recipes it has no document for yet
+    private CachedRecipe loadRecipe(Long recipeId) {
+        return recipeReadModelService.findRecipe(recipeId).orElseGet(() -> {
+            Recipe recipe = recipeGraphLoader.loadRecipe(recipeId)
+                    .orElseThrow(() -> new RecipeNotFoundException(String.format("Recipe with id %s not found", recipeId)));
+            return new CachedRecipe(mapper.toRecipeDto(recipe), recipe.getUpdatedAt(), recipe.getRecipeVisibilitySettings());
+        });
+    }
+
+    //the fork path a child of this recipe gets, e.g. /1/5/ for a fork of recipe 5 which was forked from 1
+    private static String lineagePrefix(Recipe recipe) {
+        return (recipe.getForkPath() == null ? "/" : recipe.getForkPath()) + recipe.getId() + "/";
     }
 
-    private UserServiceResponseDto fallbackUserServiceGetExt(String ccUserId, Exception e) {
-        log.error("fallbackUserServiceGetExt");
-        throw new RuntimeException(e.getMessage());
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize recipe page", e);
+        }
+    }
+
+    private UserServiceResponseDto getUserExt(String ccUserId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return userLookupService.anonymousUser();
+        }
+        return userLookupService.getUser(ccUserId);
     }
 }
@@ -0,0 +1,133 @@
+package com.tkforgeworks.cookconnect.recipeservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tkforgeworks.cookconnect.recipeservice.errorhandler.RecipeNotFoundException;
+import com.tkforgeworks.cookconnect.recipeservice.model.RecipeVersion;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeVersionDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeVersionSummaryDto;
+import com.tkforgeworks.cookconnect.recipeservice.repository.RecipeRepository;
+import com.tkforgeworks.cookconnect.recipeservice.repository.RecipeVersionRepository;
+import com.tkforgeworks.cookconnect.recipeservice.version.RecipeVersionDelta;
+import com.tkforgeworks.cookconnect.recipeservice.version.RecipeVersionState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/*
+Records and reconstructs recipe versions.
+    most edits are stored as a delta against the previous version; a full snapshot is written every
+    snapshot-interval versions, or whenever the delta would be no smaller than the snapshot, so rebuilding
+    any version reads one snapshot plus fewer than snapshot-interval deltas in a single query
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecipeVersionService {
+    private final RecipeVersionRepository recipeVersionRepository;
+    private final ObjectMapper objectMapper;
+    private final RecipeRepository recipeRepository;
+    private final RecipeVisibilityService recipeVisibilityService;
+
+    @Value("${tkforgeworks.versions.snapshot-interval:20}")
+    private int snapshotInterval;
+
+    //GET
+    @Transactional(readOnly = true)
+    public List<RecipeVersionSummaryDto> getVersions(Long recipeId) {
+        requireViewable(recipeId);
+        return recipeVersionRepository.findSummariesByRecipeId(recipeId);
+    }
+
+    @Transactional(readOnly = true)
+    public RecipeVersionDto getVersion(Long recipeId, int version) {
+        requireViewable(recipeId);
+        Integer snapshotNumber = recipeVersionRepository.findLatestSnapshotNumber(recipeId, version);
+        List<RecipeVersion> chain = snapshotNumber == null
+                ? List.of()
+                : recipeVersionRepository.findByRecipeIdAndVersionNumberBetweenOrderByVersionNumber(recipeId, snapshotNumber, version);
+        if (chain.isEmpty() || chain.get(chain.size() - 1).getVersionNumber() != version) {
+            throw new RecipeNotFoundException(String.format("Version %d of recipe %s not found", version, recipeId));
+        }
+
+        RecipeVersionState state = fromJson(chain.get(0).getPayload(), RecipeVersionState.class);
+        for (RecipeVersion next : chain.subList(1, chain.size())) {
+            state = next.isSnapshot()
+                    ? fromJson(next.getPayload(), RecipeVersionState.class)
+                    : state.apply(fromJson(next.getPayload(), RecipeVersionDelta.class));
+        }
+        RecipeVersion requested = chain.get(chain.size() - 1);
+        return new RecipeVersionDto(recipeId, version, requested.getEditedBy(), requested.getCreatedAt(), state);
+    }
+
+    //INTERNAL
+    /*
+    Called inside the edit transaction while the recipe row is locked, returns false when the edit changed nothing.
+        recipes created before versioning get their pre-edit state stored as snapshot version 1 first
+     */
+    protected boolean recordEdit(Long recipeId, RecipeVersionState before, RecipeVersionState after, String editedBy) {
+        RecipeVersionDelta delta = RecipeVersionDelta.between(before, after);
+        if (delta.isEmpty()) {
+            return false;
+        }
+
+        int previous = recipeVersionRepository.findFirstByRecipeIdOrderByVersionNumberDesc(recipeId)
+                .map(RecipeVersion::getVersionNumber)
+                .orElse(0);
+        int lastSnapshot;
+        if (previous == 0) {
+            save(recipeId, 1, true, toJson(before), null);
+            previous = 1;
+            lastSnapshot = 1;
+        } else {
+            Integer snapshotNumber = recipeVersionRepository.findLatestSnapshotNumber(recipeId, previous);
+            lastSnapshot = snapshotNumber == null ? 0 : snapshotNumber;
+        }
+
+        int next = previous + 1;
+        String deltaJson = toJson(delta);
+        String snapshotJson = toJson(after);
+        boolean snapshot = next - lastSnapshot >= snapshotInterval || deltaJson.length() >= snapshotJson.length();
+        save(recipeId, next, snapshot, snapshot ? snapshotJson : deltaJson, editedBy);
+        log.debug("Recorded version {} of recipe {} as {}", next, recipeId, snapshot ? "snapshot" : "delta");
+        return true;
+    }
+
+    //PRIVATE
+    //the history of a recipe the caller may not see is as missing as the recipe itself
+    private void requireViewable(Long recipeId) {
+        recipeRepository.findById(recipeId)
+                .filter(recipe -> recipeVisibilityService.canView(recipe.getCreatedBy(), recipe.getRecipeVisibilitySettings()))
+                .orElseThrow(() -> new RecipeNotFoundException(String.format("Recipe with id %s not found", recipeId)));
+    }
+
+    private void save(Long recipeId, int versionNumber, boolean snapshot, String payload, String editedBy) {
+        RecipeVersion version = new RecipeVersion();
+        version.setRecipeId(recipeId);
+        version.setVersionNumber(versionNumber);
+        version.setSnapshot(snapshot);
+        version.setPayload(payload);
+        version.setEditedBy(editedBy);
+        recipeVersionRepository.save(version);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize recipe version", e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read stored recipe version", e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.tkforgeworks.cookconnect.recipeservice.service;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.RecipeViewFlush;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeViewCount;
+import com.tkforgeworks.cookconnect.recipeservice.repository.RecipeRepository;
+import com.tkforgeworks.cookconnect.recipeservice.repository.RecipeViewFlushRepository;
+import com.tkforgeworks.cookconnect.recipeservice.views.ViewCounter;
+import com.tkforgeworks.cookconnect.recipeservice.views.ViewDeltas;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/*
+Counts recipe detail views in memory and adds them to recipe.view_count in batches.
+    a view is one increment on a striped ViewCounter, no database work on the request path; every few seconds
+    the counter is drained and the deltas go out as one batched UPDATE, ordered by id, in the same transaction
+    as a RecipeViewFlush row named after the batch. a batch keeps its name until it commits, so a retry after
+    an unknown outcome either applies it or hits the existing row and is dropped, never counted twice.
+    views still in memory when an instance dies without a shutdown are lost, the counts are an approximation
+ */
+@Slf4j
+@Service
+public class RecipeViewService {
+    private static final String ADD_VIEWS = "update recipe set view_count = view_count + ? where id = ?";
+    private final RecipeRepository recipeRepository;
+    private final RecipeViewFlushRepository recipeViewFlushRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ViewCounter viewCounter;
+    //names this instance's batches, a restarted instance never reuses a name
+    private final String instanceToken = UUID.randomUUID().toString();
+    private final Counter flushedViews;
+    private final Counter failedFlushes;
+    private long flushSequence;
+    private PendingFlush pending;
+
+    @Value("${tkforgeworks.views.flush-retention:PT24H}")
+    private Duration flushRetention;
+
+    public RecipeViewService(RecipeRepository recipeRepository,
+                             RecipeViewFlushRepository recipeViewFlushRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${tkforgeworks.views.stripes:64}") int stripes) {
+        this.recipeRepository = recipeRepository;
+        this.recipeViewFlushRepository = recipeViewFlushRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+        this.viewCounter = new ViewCounter(stripes);
+        this.flushedViews = Counter.builder("recipe.views.flushed").register(meterRegistry);
+        this.failedFlushes = Counter.builder("recipe.views.flush.failures").register(meterRegistry);
+    }
+
+    //GET
+    public void recordView(Long recipeId) {
+        if (recipeId != null) {
+            viewCounter.increment(recipeId);
+        }
+    }
+
+    //one primary key IN lookup, ids of recipes that no longer exist are absent from the map
+    public Map<Long, Long> findViewCounts(Collection<Long> recipeIds) {
+        if (recipeIds.isEmpty()) {
+            return Map.of();
+        }
+        return recipeRepository.findViewCountsByIdIn(recipeIds).stream()
+                .collect(Collectors.toMap(RecipeViewCount::id, RecipeViewCount::viewCount));
+    }
+
+    //SCHEDULED
+    /*
+    Applies the batch left over from a failed flush, or drains a new one.
+        only one batch is in flight at a time, views recorded meanwhile wait in the counter for the next run
+     */
+    @Scheduled(initialDelayString = "${tkforgeworks.views.flush-interval:PT5S}",
+            fixedDelayString = "${tkforgeworks.views.flush-interval:PT5S}")
+    public synchronized void flush() {
+        if (pending == null) {
+            ViewDeltas deltas = viewCounter.drain();
+            if (deltas.isEmpty()) {
+                return;
+            }
+            pending = new PendingFlush(instanceToken + "-" + ++flushSequence, deltas);
+        }
+        try {
+            apply(pending);
+            flushedViews.increment(pending.deltas().total());
+            log.debug("Flushed {} views of {} recipes as {}", pending.deltas().total(), pending.deltas().size(), pending.flushId());
+            pending = null;
+        } catch (DataIntegrityViolationException e) {
+            //the flush row exists, an earlier attempt committed even though it reported a failure
+            log.info("View flush {} was already applied, dropping it", pending.flushId());
+            pending = null;
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            log.warn("View flush {} of {} recipes failed, retrying on the next run: {}",
+                    pending.flushId(), pending.deltas().size(), e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${tkforgeworks.views.prune-interval:PT1H}",
+            fixedDelayString = "${tkforgeworks.views.prune-interval:PT1H}")
+    public void pruneFlushes() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Integer pruned = transactionTemplate.execute(status ->
+                recipeViewFlushRepository.deleteFlushedBefore(LocalDateTime.now().minus(flushRetention)));
+        log.debug("Pruned {} view flush records", pruned);
+    }
+
+    //views counted since the last run would otherwise leave with the instance
+    @PreDestroy
+    public void flushOnShutdown() {
+        //the first run may only retry a batch left by a failed flush, the second takes whatever is left
+        flush();
+        flush();
+        if (pending != null) {
+            log.warn("Discarding {} unflushed views of {} recipes on shutdown", pending.deltas().total(), pending.deltas().size());
+        }
+    }
+
+    //PRIVATE
+    private void apply(PendingFlush flush) {
+        ViewDeltas deltas = flush.deltas();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            RecipeViewFlush record = new RecipeViewFlush();
+            record.setFlushId(flush.flushId());
+            record.setFlushedAt(LocalDateTime.now());
+            record.setRecipes(deltas.size());
+            record.setViews(deltas.total());
+            record.setFresh(true);
+            //inserted first, a batch already applied fails here before touching any recipe row
+            recipeViewFlushRepository.saveAndFlush(record);
+            jdbcTemplate.batchUpdate(ADD_VIEWS, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setLong(1, deltas.counts()[i]);
+                    ps.setLong(2, deltas.recipeIds()[i]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return deltas.size();
+                }
+            });
+        });
+    }
+
+    private record PendingFlush(String flushId, ViewDeltas deltas) {}
+}
@@ -0,0 +1,44 @@
+package com.tkforgeworks.cookconnect.recipeservice.service;
+
+import com.tkforgeworks.cookconnect.recipeservice.common.AuthorizationHelper;
+import com.tkforgeworks.cookconnect.recipeservice.common.RecipeViewer;
+import com.tkforgeworks.cookconnect.recipeservice.common.UserContextHolder;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/*
+Decides which recipes the current caller may see.
+    listings filter through a RecipeViewer, in the query or in the search indexes; single recipe reads
+    go through canView. GHOST recipes are unlisted rather than hidden: anyone holding the id may open them.
+    the follow set is only looked up when a PROTECTED recipe of someone else is actually in question
+ */
+@Service
+@RequiredArgsConstructor
+public class RecipeVisibilityService {
+    private final FollowingLookupService followingLookupService;
+    private final AuthorizationHelper authorizationHelper;
+
+    public RecipeViewer currentViewer() {
+        String userId = UserContextHolder.getUserContext().getUserId();
+        if (userId == null || userId.isEmpty()) {
+            return RecipeViewer.anonymous();
+        }
+        return new RecipeViewer(userId, followingLookupService.getFollowing(userId));
+    }
+
+    public boolean canView(String createdBy, VisibilitySettings visibility) {
+        if (visibility == null || visibility == VisibilitySettings.PUBLIC || visibility == VisibilitySettings.GHOST) {
+            return true;
+        }
+        String userId = UserContextHolder.getUserContext().getUserId();
+        if (userId != null && !userId.isEmpty() && userId.equals(createdBy)) {
+            return true;
+        }
+        if (authorizationHelper.isAdmin()) {
+            return true;
+        }
+        return visibility == VisibilitySettings.PROTECTED && userId != null && !userId.isEmpty()
+                && followingLookupService.getFollowing(userId).contains(createdBy);
+    }
+}
@@ -1,5 +1,7 @@
 package com.tkforgeworks.cookconnect.recipeservice.service;
 
+import com.tkforgeworks.cookconnect.recipeservice.cache.TagDictionary;
+import com.tkforgeworks.cookconnect.recipeservice.common.NameCollation;
 import com.tkforgeworks.cookconnect.recipeservice.model.Tag;
 import com.tkforgeworks.cookconnect.recipeservice.model.TagList;
 import com.tkforgeworks.cookconnect.recipeservice.model.TagListItem;
@@ -7,45 +9,204 @@ import com.tkforgeworks.cookconnect.recipeservice.model.dto.TagDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.dto.TagListDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.dto.TagListItemDto;
 import com.tkforgeworks.cookconnect.recipeservice.model.mapper.RecipeServiceMapper;
-import com.tkforgeworks.cookconnect.recipeservice.repository.TagListRepository;
 import com.tkforgeworks.cookconnect.recipeservice.repository.TagRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.CollationKey;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.tkforgeworks.cookconnect.recipeservice.cache.TagDictionary.normalize;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TagService {
+    private static final int MAX_INSERT_ATTEMPTS = 3;
     private final TagRepository tagRepository;
-    private final TagListRepository tagListRepository;
 //    private final TagListItemRepository tagListItemRepository;
+    private final TagDictionary tagDictionary;
+    private final PlatformTransactionManager transactionManager;
     private final RecipeServiceMapper mapper;
 
     //INTERNAL
-    protected TagList createBlankList() {
-        TagList tagList = new TagList();
-        return tagListRepository.save(tagList);
+    protected TagList newBlankList() {
+        return new TagList();
     }
 
     protected TagList createTagList(TagListDto tagListDto) {
-        TagList tagList = new TagList();
+        return createTagList(tagListDto, resolveTags(tagListDto.listItems().stream()
+                .map(TagListItemDto::tag)
+                .toList()));
+    }
 
+    protected TagList createTagList(TagListDto tagListDto, Map<String, Tag> tags) {
+        TagList tagList = new TagList();
         for (TagListItemDto itemDto: tagListDto.listItems()){
             log.debug("saving Tag list item:\n\t{}", itemDto);
-            Tag tag = findOrCreateTag(itemDto.tag());
+            Tag tag = tags.get(normalize(itemDto.tag().name()));
             TagListItem tagListItem = new TagListItem();
             tagListItem.setTag(tag);
             tagList.addTag(tagListItem);
         }
 
-        return tagListRepository.save(tagList);
+        return tagList;
+    }
+
+    protected TagList copyTagList(TagList source) {
+        TagList copy = new TagList();
+        for (TagListItem sourceItem : source.getTags()) {
+            TagListItem item = new TagListItem();
+            item.setTag(sourceItem.getTag());
+            copy.addTag(item);
+        }
+        return copy;
+    }
+
+    //keyed by the tag row each name resolved to, tags that stay on the list keep their rows
+    protected void updateTagList(TagList tagList, TagListDto tagListDto, Map<String, Tag> tags) {
+        Map<Long, Tag> requested = new LinkedHashMap<>();
+        if (tagListDto != null && tagListDto.listItems() != null) {
+            tagListDto.listItems().forEach(itemDto -> {
+                Tag tag = tags.get(normalize(itemDto.tag().name()));
+                requested.put(tag.getId(), tag);
+            });
+        }
+
+        tagList.getTags().removeIf(item -> !requested.containsKey(item.getTag().getId()));
+        Set<Long> current = new HashSet<>();
+        tagList.getTags().forEach(item -> current.add(item.getTag().getId()));
+        requested.forEach((tagId, tag) -> {
+            if (current.add(tagId)) {
+                TagListItem tagListItem = new TagListItem();
+                tagListItem.setTag(tag);
+                tagList.addTag(tagListItem);
+            }
+        });
+    }
+
+    /*
+    Resolves tags from the in-memory dictionary, a miss is treated as a new tag and inserted directly
+        (no SELECT first); a unique-key collision means another create or instance won the race,
+        in which case the winner's row is read back instead of failing the request
+     */
+    protected Map<String, Tag> resolveTags(Collection<TagDto> tagDtos) {
+        Map<String, TagDto> requested = new LinkedHashMap<>();
+        for (TagDto tagDto : tagDtos) {
+            if (tagDto == null || tagDto.name() == null || tagDto.name().isBlank()) {
+                throw new IllegalArgumentException("Tag name is required");
+            }
+            requested.putIfAbsent(normalize(tagDto.name()), tagDto);
+        }
+
+        Map<String, Tag> resolved = new HashMap<>(tagDictionary.getAll(requested.keySet()));
+        List<TagDto> missing = requested.entrySet().stream()
+                .filter(entry -> !resolved.containsKey(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+
+        if (!missing.isEmpty()) {
+            log.debug("Tag dictionary miss for {} tags", missing.size());
+            Map<String, Tag> loaded = insertTagsIfAbsent(missing);
+            tagDictionary.putAll(loaded);
+            resolved.putAll(loaded);
+        }
+        return resolved;
+    }
+
+    //SCHEDULED
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${tkforgeworks.cache.tag-dictionary.refresh-interval:PT5M}",
+            fixedDelayString = "${tkforgeworks.cache.tag-dictionary.refresh-interval:PT5M}")
+    public void refreshTagDictionary() {
+        //picks up tags inserted by other instances, the local create path adds its own inserts immediately
+        tagDictionary.putAll(tagRepository.findAll());
+        log.debug("Tag dictionary refreshed, {} tags", tagDictionary.size());
     }
 
     //PRIVATE
-    protected Tag findOrCreateTag(TagDto tagDto) {
-        log.debug("findOrCreateTag\n\t{}", tagDto);
-        return tagRepository.findByName(tagDto.name())
-                .orElseGet(() -> tagRepository.save(mapper.toTag(tagDto)));
+    /*
+    The first attempt inserts without reading, after a collision every tag is resolved again in a transaction
+        of its own: a concurrent create's row is then read back, and names of this request the collation folds
+        together find each other's row
+     */
+    private Map<String, Tag> insertTagsIfAbsent(List<TagDto> tagDtos) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            return transactionTemplate.execute(status -> insertTags(tagDtos, new HashMap<>()));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Tag insert collided with an existing tag, resolving {} tags one at a time", tagDtos.size());
+        }
+
+        Map<String, Tag> resolved = new HashMap<>();
+        for (TagDto tagDto : tagDtos) {
+            resolved.putAll(findOrInsertTag(transactionTemplate, tagDto));
+        }
+        return resolved;
+    }
+
+    private Map<String, Tag> findOrInsertTag(TransactionTemplate transactionTemplate, TagDto tagDto) {
+        for (int attempt = 1; attempt <= MAX_INSERT_ATTEMPTS; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> insertTags(List.of(tagDto), findByNames(List.of(tagDto.name()))));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Tag insert collided with an existing tag, attempt {}", attempt);
+            }
+        }
+        throw new IllegalStateException(String.format("Unable to resolve tag %s", tagDto.name()));
+    }
+
+    private Map<String, Tag> insertTags(List<TagDto> tagDtos, Map<String, Tag> existing) {
+        List<TagDto> toInsert = tagDtos.stream()
+                .filter(tagDto -> !existing.containsKey(normalize(tagDto.name())))
+                .toList();
+
+        List<Tag> inserted = tagRepository.saveAllAndFlush(toInsert.stream().map(this::toNewTag).toList());
+        for (int i = 0; i < toInsert.size(); i++) {
+            existing.put(normalize(toInsert.get(i).name()), inserted.get(i));
+        }
+        return existing;
+    }
+
+    //keyed by the normalized requested name, mapped to the row the database matched for that name
+    private Map<String, Tag> findByNames(Collection<String> names) {
+        List<String> requested = names.stream().map(String::trim).distinct().toList();
+        //the database matches by its collation, the row's name need not equal the name that found it
+        Map<CollationKey, Long> ids = new HashMap<>();
+        tagRepository.findIdsByNameIn(requested).forEach(row -> ids.putIfAbsent(NameCollation.key(row.name()), row.id()));
+        Map<Long, Tag> rows = new HashMap<>();
+        if (!ids.isEmpty()) {
+            tagRepository.findAllById(new HashSet<>(ids.values())).forEach(tag -> rows.put(tag.getId(), tag));
+        }
+
+        Map<String, Tag> found = new HashMap<>();
+        for (String name : requested) {
+            Tag tag = rows.get(ids.get(NameCollation.key(name)));
+            if (tag != null) {
+                found.putIfAbsent(normalize(name), tag);
+            }
+        }
+        return found;
+    }
+
+    private Tag toNewTag(TagDto tagDto) {
+        Tag tag = mapper.toTag(tagDto);
+        tag.setName(tagDto.name().trim());
+        return tag;
     }
 }
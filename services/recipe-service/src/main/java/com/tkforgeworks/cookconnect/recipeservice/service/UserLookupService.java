@@ -0,0 +1,149 @@
+package com.tkforgeworks.cookconnect.recipeservice.service;
+
+import com.tkforgeworks.cookconnect.recipeservice.cache.CachedUser;
+import com.tkforgeworks.cookconnect.recipeservice.cache.UserSummaryCache;
+import com.tkforgeworks.cookconnect.recipeservice.clients.BatchLoader;
+import com.tkforgeworks.cookconnect.recipeservice.clients.UserServiceFeignClient;
+import com.tkforgeworks.cookconnect.recipeservice.common.dto.UserServiceResponseDto;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+Resolves createdBy users through UserSummaryCache before calling user-service.
+    misses are collected by a BatchLoader so concurrent lookups share one POST /internal/batch call;
+    ids user-service does not know resolve to the anonymous user and are cached negatively;
+    when the call fails after retries (or the circuit is open) a stale entry is served if one is kept
+ */
+@Slf4j
+@Service
+public class UserLookupService {
+    private final UserServiceFeignClient userServiceFeignClient;
+    private final BatchLoader<String, UserServiceResponseDto> userBatchLoader;
+    private final UserSummaryCache userSummaryCache;
+    private final int maxBatchSize;
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+    private final Counter staleServes;
+
+    public UserLookupService(UserServiceFeignClient userServiceFeignClient,
+                             UserSummaryCache userSummaryCache,
+                             MeterRegistry meterRegistry,
+                             @Value("${tkforgeworks.user-lookup.batch-window:PT0.005S}") Duration batchWindow,
+                             @Value("${tkforgeworks.user-lookup.max-batch-size:100}") int maxBatchSize) {
+        this.userServiceFeignClient = userServiceFeignClient;
+        this.userBatchLoader = new BatchLoader<>("users", this::fetchUsers, batchWindow, maxBatchSize, meterRegistry);
+        this.userSummaryCache = userSummaryCache;
+        this.maxBatchSize = maxBatchSize;
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.negativeHits = lookupCounter(meterRegistry, "negative_hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.staleServes = lookupCounter(meterRegistry, "stale");
+    }
+
+    //GET
+    @CircuitBreaker(name = "main")
+    @Retry(name = "main", fallbackMethod = "fallbackStaleUser")
+    public UserServiceResponseDto getUser(String ccUserId) {
+        CachedUser cached = userSummaryCache.getFresh(ccUserId);
+        if (cached != null) {
+            (cached.isNotFound() ? negativeHits : hits).increment();
+            return cached.isNotFound() ? anonymousUser() : cached.user();
+        }
+
+        misses.increment();
+        UserServiceResponseDto user = userBatchLoader.load(ccUserId);
+        if (user == null) {
+            userSummaryCache.putNotFound(ccUserId);
+            return anonymousUser();
+        }
+        userSummaryCache.putFound(ccUserId, user);
+        return user;
+    }
+
+    /*
+    Bulk counterpart of getUser for imports.
+        fresh cache entries are reused, the remaining ids go to POST /internal/batch in max-batch-size calls
+        made from the calling thread; unknown ids are cached negatively and left out of the map, an import
+        rejects their lines rather than filing recipes under the anonymous user
+     */
+    @CircuitBreaker(name = "main")
+    @Retry(name = "main")
+    public Map<String, UserServiceResponseDto> getUsers(Collection<String> ccUserIds) {
+        Map<String, UserServiceResponseDto> users = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String ccUserId : new LinkedHashSet<>(ccUserIds)) {
+            CachedUser cached = userSummaryCache.getFresh(ccUserId);
+            if (cached == null) {
+                missing.add(ccUserId);
+            } else {
+                (cached.isNotFound() ? negativeHits : hits).increment();
+                if (!cached.isNotFound()) {
+                    users.put(ccUserId, cached.user());
+                }
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += maxBatchSize) {
+            List<String> batch = missing.subList(from, Math.min(from + maxBatchSize, missing.size()));
+            misses.increment(batch.size());
+            Map<String, UserServiceResponseDto> fetched = fetchUsers(batch);
+            for (String ccUserId : batch) {
+                UserServiceResponseDto user = fetched.get(ccUserId);
+                if (user == null) {
+                    userSummaryCache.putNotFound(ccUserId);
+                } else {
+                    userSummaryCache.putFound(ccUserId, user);
+                    users.put(ccUserId, user);
+                }
+            }
+        }
+        return users;
+    }
+
+    public UserServiceResponseDto anonymousUser() {
+        return new UserServiceResponseDto("anonymous", "anonymous", false, false);
+    }
+
+    //PRIVATE
+    private Map<String, UserServiceResponseDto> fetchUsers(Collection<String> ccUserIds) {
+        return userServiceFeignClient.getUsersByIds(ccUserIds).stream()
+                .collect(Collectors.toMap(UserServiceResponseDto::id, Function.identity(), (first, second) -> first));
+    }
+
+    private UserServiceResponseDto fallbackStaleUser(String ccUserId, Exception e) {
+        CachedUser stale = userSummaryCache.getStale(ccUserId);
+        if (stale == null) {
+            log.error("User lookup for {} failed with nothing cached: {}", ccUserId, e.getMessage());
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e);
+        }
+        staleServes.increment();
+        log.warn("Serving stale user {} after lookup failure: {}", ccUserId, e.getMessage());
+        return stale.isNotFound() ? anonymousUser() : stale.user();
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("user.lookups")
+                .tag("cache", UserSummaryCache.CACHE_NAME)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,95 @@
+package com.tkforgeworks.cookconnect.recipeservice.version;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.SkillLevel;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+import com.tkforgeworks.cookconnect.recipeservice.version.RecipeVersionState.IngredientEntry;
+import com.tkforgeworks.cookconnect.recipeservice.version.RecipeVersionState.InstructionEntry;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/*
+What changed between two consecutive versions of a recipe.
+    a null Change means the field kept its value, a Change holding null means it was cleared;
+    list changes carry only the items that were added, changed or removed, never the whole list
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record RecipeVersionDelta(Change<String> title,
+                                 Change<String> description,
+                                 Change<SkillLevel> skillLevel,
+                                 Change<VisibilitySettings> visibility,
+                                 SortedMap<String, IngredientEntry> ingredientsSet,
+                                 SortedSet<String> ingredientsRemoved,
+                                 SortedMap<Integer, InstructionEntry> stepsSet,
+                                 SortedSet<Integer> stepsRemoved,
+                                 SortedSet<String> tagsAdded,
+                                 SortedSet<String> tagsRemoved)
+        implements Serializable {
+
+    public record Change<T>(T value) implements Serializable {}
+
+    public static RecipeVersionDelta between(RecipeVersionState before, RecipeVersionState after) {
+        return new RecipeVersionDelta(
+                change(before.title(), after.title()),
+                change(before.description(), after.description()),
+                change(before.skillLevel(), after.skillLevel()),
+                change(before.visibility(), after.visibility()),
+                changedEntries(before.ingredients(), after.ingredients()),
+                removedKeys(before.ingredients(), after.ingredients()),
+                changedEntries(before.instructions(), after.instructions()),
+                removedKeys(before.instructions(), after.instructions()),
+                difference(after.tags(), before.tags()),
+                difference(before.tags(), after.tags())
+        );
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return title == null && description == null && skillLevel == null && visibility == null
+                && orEmpty(ingredientsSet).isEmpty() && orEmpty(ingredientsRemoved).isEmpty()
+                && orEmpty(stepsSet).isEmpty() && orEmpty(stepsRemoved).isEmpty()
+                && orEmpty(tagsAdded).isEmpty() && orEmpty(tagsRemoved).isEmpty();
+    }
+
+    //empty collections are left out of the stored JSON and read back as null
+    static <K, V> Map<K, V> orEmpty(Map<K, V> map) {
+        return map == null ? Map.of() : map;
+    }
+
+    static <T> Set<T> orEmpty(Set<T> set) {
+        return set == null ? Set.of() : set;
+    }
+
+    //PRIVATE
+    private static <T> Change<T> change(T before, T after) {
+        return Objects.equals(before, after) ? null : new Change<>(after);
+    }
+
+    private static <K extends Comparable<K>, V> SortedMap<K, V> changedEntries(Map<K, V> before, Map<K, V> after) {
+        SortedMap<K, V> changed = new TreeMap<>();
+        after.forEach((key, value) -> {
+            if (!value.equals(before.get(key))) {
+                changed.put(key, value);
+            }
+        });
+        return changed;
+    }
+
+    private static <K extends Comparable<K>> SortedSet<K> removedKeys(Map<K, ?> before, Map<K, ?> after) {
+        return difference(before.keySet(), after.keySet());
+    }
+
+    private static <T extends Comparable<T>> SortedSet<T> difference(Set<T> from, Set<T> minus) {
+        SortedSet<T> difference = new TreeSet<>(from);
+        difference.removeAll(minus);
+        return difference;
+    }
+}
@@ -0,0 +1,76 @@
+package com.tkforgeworks.cookconnect.recipeservice.version;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.IngredientListItem;
+import com.tkforgeworks.cookconnect.recipeservice.model.InstructionListItem;
+import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+import com.tkforgeworks.cookconnect.recipeservice.model.TagListItem;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.MeasurementValue;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.SkillLevel;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+
+import java.io.Serializable;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/*
+Everything a recipe version records, keyed the way edits are applied.
+    ingredients by ingredient name, instructions by step number and tags by name, so two states
+    diff item by item; sorted collections keep the stored JSON stable between identical states
+ */
+public record RecipeVersionState(String title,
+                                 String description,
+                                 SkillLevel skillLevel,
+                                 VisibilitySettings visibility,
+                                 SortedMap<String, IngredientEntry> ingredients,
+                                 SortedMap<Integer, InstructionEntry> instructions,
+                                 SortedSet<String> tags)
+        implements Serializable {
+
+    public record IngredientEntry(int quantity, MeasurementValue measurementValue) implements Serializable {}
+
+    public record InstructionEntry(String text, String note) implements Serializable {}
+
+    //the recipe must have its lists initialized, e.g. loaded through RecipeGraphLoader
+    public static RecipeVersionState of(Recipe recipe) {
+        SortedMap<String, IngredientEntry> ingredients = new TreeMap<>();
+        for (IngredientListItem item : recipe.getIngredientList().getIngredients()) {
+            ingredients.put(item.getIngredient().getName(), new IngredientEntry(item.getQuantity(), item.getMeasurementValue()));
+        }
+        SortedMap<Integer, InstructionEntry> instructions = new TreeMap<>();
+        for (InstructionListItem item : recipe.getInstructionList().getInstructions()) {
+            instructions.put(item.getStepNumber(), new InstructionEntry(item.getInstruction().getText(), item.getInstruction().getNote()));
+        }
+        SortedSet<String> tags = new TreeSet<>();
+        for (TagListItem item : recipe.getTagList().getTags()) {
+            tags.add(item.getTag().getName());
+        }
+        return new RecipeVersionState(recipe.getTitle(), recipe.getDescription(), recipe.getSkillLevel(),
+                recipe.getRecipeVisibilitySettings(), ingredients, instructions, tags);
+    }
+
+    public RecipeVersionState apply(RecipeVersionDelta delta) {
+        SortedMap<String, IngredientEntry> nextIngredients = new TreeMap<>(ingredients);
+        RecipeVersionDelta.orEmpty(delta.ingredientsRemoved()).forEach(nextIngredients::remove);
+        nextIngredients.putAll(RecipeVersionDelta.orEmpty(delta.ingredientsSet()));
+
+        SortedMap<Integer, InstructionEntry> nextInstructions = new TreeMap<>(instructions);
+        RecipeVersionDelta.orEmpty(delta.stepsRemoved()).forEach(nextInstructions::remove);
+        nextInstructions.putAll(RecipeVersionDelta.orEmpty(delta.stepsSet()));
+
+        SortedSet<String> nextTags = new TreeSet<>(tags);
+        nextTags.removeAll(RecipeVersionDelta.orEmpty(delta.tagsRemoved()));
+        nextTags.addAll(RecipeVersionDelta.orEmpty(delta.tagsAdded()));
+
+        return new RecipeVersionState(
+                delta.title() == null ? title : delta.title().value(),
+                delta.description() == null ? description : delta.description().value(),
+                delta.skillLevel() == null ? skillLevel : delta.skillLevel().value(),
+                delta.visibility() == null ? visibility : delta.visibility().value(),
+                nextIngredients,
+                nextInstructions,
+                nextTags
+        );
+    }
+}
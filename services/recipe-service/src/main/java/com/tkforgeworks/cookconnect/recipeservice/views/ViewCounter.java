@@ -0,0 +1,126 @@
+package com.tkforgeworks.cookconnect.recipeservice.views;
+
+import java.util.Arrays;
+
+/*
+Recipe view increments not yet flushed, keyed by primitive recipe id.
+    each id hashes to one of a fixed number of stripes, every stripe an open-addressing long -> long table behind
+    its own lock, so concurrent views of different recipes rarely contend and neither ids nor counts are boxed.
+    drain() swaps every stripe's table for an empty one, the lock is held for the swap and never for a flush
+ */
+public class ViewCounter {
+    //recipe ids come from a sequence starting at 1, so 0 marks a free slot
+    private static final long FREE = 0L;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final int INITIAL_CAPACITY = 64;
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    public ViewCounter(int stripes) {
+        if (stripes < 1 || stripes > 1 << 16) {
+            throw new IllegalArgumentException("stripes must be between 1 and 65536");
+        }
+        int count = Integer.highestOneBit(stripes) == stripes ? stripes : Integer.highestOneBit(stripes) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeShift = 64 - Integer.numberOfTrailingZeros(count);
+    }
+
+    public void increment(long recipeId) {
+        if (recipeId != FREE) {
+            stripeFor(recipeId).add(recipeId, 1);
+        }
+    }
+
+    //every count since the previous drain, ordered by recipe id
+    public ViewDeltas drain() {
+        Table[] drained = new Table[stripes.length];
+        int total = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            drained[i] = stripes[i].swap();
+            total += drained[i].size;
+        }
+        long[] recipeIds = new long[total];
+        int next = 0;
+        for (Table table : drained) {
+            for (long key : table.keys) {
+                if (key != FREE) {
+                    recipeIds[next++] = key;
+                }
+            }
+        }
+        Arrays.sort(recipeIds);
+        long[] counts = new long[total];
+        for (int i = 0; i < total; i++) {
+            Table table = drained[stripeIndex(recipeIds[i])];
+            counts[i] = table.counts[slot(table.keys, recipeIds[i])];
+        }
+        return new ViewDeltas(recipeIds, counts);
+    }
+
+    //PRIVATE
+    private Stripe stripeFor(long recipeId) {
+        return stripes[stripeIndex(recipeId)];
+    }
+
+    //stripes take the high bits of the hash, slots within a stripe the low ones
+    private int stripeIndex(long recipeId) {
+        return stripeShift == 64 ? 0 : (int) ((recipeId * GOLDEN) >>> stripeShift);
+    }
+
+    private static int slot(long[] keys, long key) {
+        long hash = key * GOLDEN;
+        int mask = keys.length - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private record Table(long[] keys, long[] counts, int size) {}
+
+    private static final class Stripe {
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private long[] counts = new long[INITIAL_CAPACITY];
+        private int size;
+
+        synchronized void add(long key, long delta) {
+            int slot = slot(keys, key);
+            if (keys[slot] == key) {
+                counts[slot] += delta;
+                return;
+            }
+            keys[slot] = key;
+            counts[slot] = delta;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        //the next interval starts at the size this one reached, hot stripes do not regrow every flush
+        synchronized Table swap() {
+            Table drained = new Table(keys, counts, size);
+            keys = new long[keys.length];
+            counts = new long[keys.length];
+            size = 0;
+            return drained;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldCounts = counts;
+            keys = new long[oldKeys.length << 1];
+            counts = new long[oldKeys.length << 1];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE) {
+                    int slot = slot(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+    }
+}
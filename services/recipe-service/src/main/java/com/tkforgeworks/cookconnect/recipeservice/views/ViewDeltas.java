@@ -0,0 +1,20 @@
+package com.tkforgeworks.cookconnect.recipeservice.views;
+
+//parallel arrays, counts[i] views of recipeIds[i]; ids ascending so every flush locks rows in the same order
+public record ViewDeltas(long[] recipeIds, long[] counts) {
+    public int size() {
+        return recipeIds.length;
+    }
+
+    public boolean isEmpty() {
+        return recipeIds.length == 0;
+    }
+
+    public long total() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,81 @@
+package com.tkforgeworks.cookconnect.recipeservice.clients;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchLoaderTest {
+    private static final Path THIS_COPY = Path.of("src/main/java/com/tkforgeworks/cookconnect/recipeservice/clients/BatchLoader.java");
+    private static final Path SOCIAL_SERVICE_COPY = Path.of("../social-service/src/main/java/com/tkforgeworks/cookconnect/socialservice/clients/BatchLoader.java");
+
+    @Test
+    void concurrentLoadsShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        BatchLoader<String, String> loader = new BatchLoader<>("test", keys -> {
+            calls.incrementAndGet();
+            return keys.stream().collect(Collectors.toMap(key -> key, String::toUpperCase));
+        }, Duration.ofMillis(200), 100, new SimpleMeterRegistry());
+
+        List<Future<String>> results = loadConcurrently(loader, List.of("a", "b", "c"));
+
+        assertThat(results.get(0).get()).isEqualTo("A");
+        assertThat(results.get(1).get()).isEqualTo("B");
+        assertThat(results.get(2).get()).isEqualTo("C");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    //an Error must not leave the other callers of the batch waiting forever
+    @Test
+    void errorFromTheBatchCallReachesEveryWaiter() throws Exception {
+        BatchLoader<String, String> loader = new BatchLoader<>("test", keys -> {
+            throw new StackOverflowError("boom");
+        }, Duration.ofMillis(200), 100, new SimpleMeterRegistry());
+
+        for (Future<String> result : loadConcurrently(loader, List.of("a", "b", "c"))) {
+            assertThatThrownBy(result::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(StackOverflowError.class);
+        }
+    }
+
+    @Test
+    void missingKeysResolveToNull() {
+        BatchLoader<String, String> loader = new BatchLoader<>("test", keys -> Map.of(), Duration.ZERO, 1, new SimpleMeterRegistry());
+
+        assertThat(loader.load("a")).isNull();
+    }
+
+    //the two services keep their own copy, they may only differ in the package they declare
+    @Test
+    void socialServiceCopyMatchesThisOne() throws Exception {
+        assertThat(withoutPackage(SOCIAL_SERVICE_COPY)).isEqualTo(withoutPackage(THIS_COPY));
+    }
+
+    //PRIVATE
+    private static List<Future<String>> loadConcurrently(BatchLoader<String, String> loader, List<String> keys) {
+        ExecutorService pool = Executors.newFixedThreadPool(keys.size());
+        List<Future<String>> results = new ArrayList<>();
+        keys.forEach(key -> results.add(pool.submit(() -> loader.load(key))));
+        pool.shutdown();
+        return results;
+    }
+
+    private static String withoutPackage(Path source) throws Exception {
+        return Files.readString(source).replaceFirst("package [\\w.]+;", "");
+    }
+}
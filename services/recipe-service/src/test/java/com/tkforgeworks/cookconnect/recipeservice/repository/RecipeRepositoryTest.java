@@ -0,0 +1,122 @@
+package com.tkforgeworks.cookconnect.recipeservice.repository;
+
+import com.tkforgeworks.cookconnect.recipeservice.model.IngredientList;
+import com.tkforgeworks.cookconnect.recipeservice.model.InstructionList;
+import com.tkforgeworks.cookconnect.recipeservice.model.Recipe;
+import com.tkforgeworks.cookconnect.recipeservice.model.TagList;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeBrowseRow;
+import com.tkforgeworks.cookconnect.recipeservice.model.dto.RecipeSummaryDto;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+Browse pages are read through constructor projections.
+    a page is one narrow SELECT plus its count (or, by keyset, its ids and then their rows), however many recipes
+    it holds; loading entities instead would add statements per row for the lists
+ */
+@DataJpaTest
+class RecipeRepositoryTest {
+    private static final int RECIPES = 60;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void createRecipes() {
+        IngredientList ingredientList = entityManager.persist(new IngredientList());
+        InstructionList instructionList = entityManager.persist(new InstructionList());
+        TagList tagList = entityManager.persist(new TagList());
+        for (int i = 0; i < RECIPES; i++) {
+            Recipe recipe = new Recipe();
+            recipe.setTitle("Recipe " + i);
+            recipe.setCreatedBy("author");
+            recipe.setCreatedByUsername("author");
+            recipe.setRecipeVisibilitySettings(VisibilitySettings.PUBLIC);
+            recipe.setIngredientList(ingredientList);
+            recipe.setInstructionList(instructionList);
+            recipe.setTagList(tagList);
+            entityManager.persist(recipe);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void publicSummaryPageCostsTheSameStatementsForAnyPageSize() {
+        long smallPage = statementsFor(5);
+        long largePage = statementsFor(30);
+
+        //the page query and its count
+        assertThat(smallPage).isEqualTo(2);
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+
+    @Test
+    void keysetPageCostsTheSameStatementsForAnyPageSize() {
+        long smallPage = keysetStatementsFor(5);
+        long largePage = keysetStatementsFor(30);
+
+        //the first page's ids and rows, then the next page's ids and rows
+        assertThat(smallPage).isEqualTo(4);
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+
+    //PRIVATE
+    //walks two pages the way getRecipesSummarySlice does, ids by keyset and then their rows by primary key
+    private long keysetStatementsFor(int pageSize) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Long> firstIds = recipeRepository.findPublicNewestIds(Limit.of(pageSize));
+        List<RecipeBrowseRow> firstRows = recipeRepository.findBrowseRowsByIdIn(firstIds);
+        RecipeBrowseRow last = firstRows.stream()
+                .filter(row -> row.id().equals(firstIds.get(firstIds.size() - 1)))
+                .findFirst()
+                .orElseThrow();
+        List<Long> nextIds = recipeRepository.findPublicNewestIdsAfter(last.createdAt(), last.id(), Limit.of(pageSize));
+        List<RecipeBrowseRow> nextRows = recipeRepository.findBrowseRowsByIdIn(nextIds);
+
+        assertThat(firstRows).hasSize(pageSize);
+        assertThat(nextRows).hasSize(pageSize);
+        assertThat(nextIds).doesNotContainAnyElementsOf(firstIds);
+        return statistics.getPrepareStatementCount();
+    }
+
+    //only full pages, Spring Data skips the count query for a partial last page
+    private long statementsFor(int pageSize) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Page<RecipeSummaryDto> page = recipeRepository.findPublicSummaries(
+                PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")));
+        assertThat(page.getContent()).hasSize(pageSize);
+        assertThat(page.getTotalElements()).isEqualTo(RECIPES);
+        return statistics.getPrepareStatementCount();
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Recipe.class)
+    @EnableJpaRepositories(basePackageClasses = RecipeRepository.class)
+    static class JpaSliceConfiguration {
+    }
+}
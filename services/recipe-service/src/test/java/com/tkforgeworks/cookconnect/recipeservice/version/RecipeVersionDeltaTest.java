@@ -0,0 +1,116 @@
+package com.tkforgeworks.cookconnect.recipeservice.version;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.MeasurementValue;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.SkillLevel;
+import com.tkforgeworks.cookconnect.recipeservice.model.enums.VisibilitySettings;
+import com.tkforgeworks.cookconnect.recipeservice.version.RecipeVersionState.IngredientEntry;
+import com.tkforgeworks.cookconnect.recipeservice.version.RecipeVersionState.InstructionEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipeVersionDeltaTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final RecipeVersionState original = state("Pancakes", "Fluffy", SkillLevel.HOME_COOK, VisibilitySettings.PUBLIC,
+            Map.of("flour", new IngredientEntry(2, MeasurementValue.CUP), "egg", new IngredientEntry(1, MeasurementValue.CUP)),
+            Map.of(1, new InstructionEntry("Mix", null), 2, new InstructionEntry("Fry", "medium heat")),
+            Set.of("breakfast", "sweet"));
+
+    @Test
+    void applyingTheDeltaBetweenTwoStatesGivesTheSecond() {
+        RecipeVersionState edited = state("Pancakes", null, SkillLevel.HOME_COOK, VisibilitySettings.PRIVATE,
+                Map.of("flour", new IngredientEntry(3, MeasurementValue.CUP), "milk", new IngredientEntry(1, MeasurementValue.CUP)),
+                Map.of(1, new InstructionEntry("Whisk", null)),
+                Set.of("breakfast", "quick"));
+
+        RecipeVersionDelta delta = RecipeVersionDelta.between(original, edited);
+
+        assertThat(original.apply(delta)).isEqualTo(edited);
+    }
+
+    @Test
+    void deltaCarriesOnlyWhatChanged() {
+        RecipeVersionState edited = state("Crepes", "Fluffy", SkillLevel.HOME_COOK, VisibilitySettings.PUBLIC,
+                Map.of("flour", new IngredientEntry(2, MeasurementValue.CUP), "egg", new IngredientEntry(2, MeasurementValue.CUP)),
+                Map.of(1, new InstructionEntry("Mix", null), 2, new InstructionEntry("Fry", "medium heat")),
+                Set.of("breakfast", "sweet"));
+
+        RecipeVersionDelta delta = RecipeVersionDelta.between(original, edited);
+
+        assertThat(delta.title()).isEqualTo(new RecipeVersionDelta.Change<>("Crepes"));
+        assertThat(delta.description()).isNull();
+        assertThat(delta.visibility()).isNull();
+        assertThat(delta.ingredientsSet()).containsOnlyKeys("egg");
+        assertThat(delta.ingredientsRemoved()).isEmpty();
+        assertThat(delta.stepsSet()).isEmpty();
+        assertThat(delta.tagsAdded()).isEmpty();
+        assertThat(delta.isEmpty()).isFalse();
+        assertThat(RecipeVersionDelta.between(original, original).isEmpty()).isTrue();
+    }
+
+    //a Change holding null clears the field, a missing Change keeps it
+    @Test
+    void clearedFieldSurvivesTheRoundTrip() throws Exception {
+        RecipeVersionState cleared = state("Pancakes", null, null, VisibilitySettings.PUBLIC,
+                original.ingredients(), original.instructions(), original.tags());
+
+        RecipeVersionDelta delta = RecipeVersionDelta.between(original, cleared);
+        RecipeVersionDelta stored = objectMapper.readValue(objectMapper.writeValueAsString(delta), RecipeVersionDelta.class);
+
+        assertThat(delta.description()).isEqualTo(new RecipeVersionDelta.Change<String>(null));
+        assertThat(original.apply(delta)).isEqualTo(cleared);
+        assertThat(original.apply(stored)).isEqualTo(cleared);
+    }
+
+    //deltas are stored as JSON without their empty collections, they must apply the same once read back
+    @Test
+    void storedJsonAppliesLikeTheDelta() throws Exception {
+        RecipeVersionState edited = state("Pancakes", "Fluffy", SkillLevel.HOME_COOK, VisibilitySettings.PROTECTED,
+                Map.of("flour", new IngredientEntry(2, MeasurementValue.CUP)),
+                original.instructions(),
+                Set.of("breakfast", "sweet", "vegetarian"));
+        RecipeVersionDelta delta = RecipeVersionDelta.between(original, edited);
+
+        String json = objectMapper.writeValueAsString(delta);
+        RecipeVersionDelta stored = objectMapper.readValue(json, RecipeVersionDelta.class);
+
+        assertThat(json).doesNotContain("stepsSet", "tagsRemoved", "\"title\"");
+        assertThat(original.apply(stored)).isEqualTo(edited);
+    }
+
+    @Test
+    void stateSurvivesItsJsonRoundTrip() throws Exception {
+        String json = objectMapper.writeValueAsString(original);
+
+        assertThat(objectMapper.readValue(json, RecipeVersionState.class)).isEqualTo(original);
+    }
+
+    @Test
+    void chainedDeltasRebuildTheLatestState() {
+        RecipeVersionState second = original.apply(RecipeVersionDelta.between(original, state("Pancakes", "Fluffy",
+                SkillLevel.HOME_COOK, VisibilitySettings.PUBLIC, original.ingredients(), Map.of(1, new InstructionEntry("Mix", null)),
+                Set.of("breakfast"))));
+        RecipeVersionState third = state("Pancakes", "Thin", SkillLevel.HOME_COOK, VisibilitySettings.PUBLIC,
+                Map.of("flour", new IngredientEntry(1, MeasurementValue.CUP)), second.instructions(), Set.of());
+
+        RecipeVersionDelta first = RecipeVersionDelta.between(original, second);
+        RecipeVersionDelta next = RecipeVersionDelta.between(second, third);
+
+        assertThat(original.apply(first).apply(next)).isEqualTo(third);
+    }
+
+    //PRIVATE
+    private static RecipeVersionState state(String title, String description, SkillLevel skillLevel, VisibilitySettings visibility,
+                                            Map<String, IngredientEntry> ingredients, Map<Integer, InstructionEntry> instructions,
+                                            Set<String> tags) {
+        return new RecipeVersionState(title, description, skillLevel, visibility,
+                new TreeMap<>(ingredients), new TreeMap<>(instructions), new TreeSet<>(tags));
+    }
+}
@@ -0,0 +1,128 @@
+package com.tkforgeworks.cookconnect.recipeservice.views;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ViewCounterTest {
+
+    @Test
+    void drainReturnsCountsOrderedByRecipeId() {
+        ViewCounter counter = new ViewCounter(4);
+        counter.increment(42);
+        counter.increment(7);
+        counter.increment(42);
+        counter.increment(1_000_000_007L);
+
+        ViewDeltas deltas = counter.drain();
+
+        assertThat(deltas.recipeIds()).containsExactly(7, 42, 1_000_000_007L);
+        assertThat(deltas.counts()).containsExactly(1, 2, 1);
+        assertThat(deltas.total()).isEqualTo(4);
+    }
+
+    @Test
+    void drainStartsTheNextIntervalEmpty() {
+        ViewCounter counter = new ViewCounter(4);
+        counter.increment(1);
+        counter.drain();
+
+        assertThat(counter.drain().isEmpty()).isTrue();
+
+        counter.increment(1);
+        assertThat(counter.drain().counts()).containsExactly(1);
+    }
+
+    @Test
+    void idZeroIsIgnored() {
+        ViewCounter counter = new ViewCounter(1);
+        counter.increment(0);
+
+        assertThat(counter.drain().isEmpty()).isTrue();
+    }
+
+    //a single stripe holds every id, so the table has to grow well past its initial capacity
+    @Test
+    void stripeGrowsWithoutLosingCounts() {
+        ViewCounter counter = new ViewCounter(1);
+        for (long id = 1; id <= 10_000; id++) {
+            for (int view = 0; view < id % 3 + 1; view++) {
+                counter.increment(id);
+            }
+        }
+
+        ViewDeltas deltas = counter.drain();
+
+        assertThat(deltas.size()).isEqualTo(10_000);
+        for (int i = 0; i < deltas.size(); i++) {
+            assertThat(deltas.recipeIds()[i]).isEqualTo(i + 1);
+            assertThat(deltas.counts()[i]).isEqualTo(deltas.recipeIds()[i] % 3 + 1);
+        }
+    }
+
+    @Test
+    void stripeCountIsRoundedUpToAPowerOfTwo() {
+        ViewCounter counter = new ViewCounter(6);
+        for (long id = 1; id <= 1_000; id++) {
+            counter.increment(id);
+        }
+
+        assertThat(counter.drain().size()).isEqualTo(1_000);
+        assertThatThrownBy(() -> new ViewCounter(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ViewCounter((1 << 16) + 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    //drains race the increments, every view must land in exactly one drain
+    @Test
+    void concurrentIncrementsAreCountedOnce() throws Exception {
+        ViewCounter counter = new ViewCounter(8);
+        int threads = 8;
+        int viewsPerThread = 100_000;
+        int recipes = 2_000;
+        long[] expected = new long[recipes + 1];
+        for (int thread = 0; thread < threads; thread++) {
+            Random random = new Random(thread);
+            for (int view = 0; view < viewsPerThread; view++) {
+                expected[1 + random.nextInt(recipes)]++;
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            int seed = thread;
+            writers.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                for (int view = 0; view < viewsPerThread; view++) {
+                    counter.increment(1 + random.nextInt(recipes));
+                }
+            }));
+        }
+        long[] counted = new long[recipes + 1];
+        while (!writers.stream().allMatch(Future::isDone)) {
+            addTo(counted, counter.drain());
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        addTo(counted, counter.drain());
+        pool.shutdown();
+
+        assertThat(counted).isEqualTo(expected);
+    }
+
+    //PRIVATE
+    private static void addTo(long[] counted, ViewDeltas deltas) {
+        for (int i = 0; i < deltas.size(); i++) {
+            counted[(int) deltas.recipeIds()[i]] += deltas.counts()[i];
+        }
+    }
+}
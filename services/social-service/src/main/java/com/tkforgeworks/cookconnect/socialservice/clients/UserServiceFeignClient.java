@@ -7,6 +7,10 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(
         name = "user-service",
@@ -16,6 +20,9 @@ public interface UserServiceFeignClient {
     @GetMapping("/api/v1/internal/{userId}")
     UserServiceResponseDto getUserById(@PathVariable("userId") String userId);
 
+    @PostMapping("/api/v1/internal/batch")
+    List<UserServiceResponseDto> getUsersByIds(@RequestBody Collection<String> userIds);
+
     @PostMapping("/api/v1/internal/{userId}/social")
     void addSocialInteraction(@PathVariable("userId") String userId);
 
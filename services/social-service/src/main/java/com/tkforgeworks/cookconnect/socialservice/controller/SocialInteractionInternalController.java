@@ -0,0 +1,23 @@
+package com.tkforgeworks.cookconnect.socialservice.controller;
+
+import com.tkforgeworks.cookconnect.socialservice.service.SocialInteractionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.util.List;
+
+@Controller
+@RequestMapping("/internal")
+@RequiredArgsConstructor
+public class SocialInteractionInternalController {
+    private final SocialInteractionService socialInteractionService;
+
+    @GetMapping("/{userId}/following")
+    public ResponseEntity<List<String>> getFollowingIds(@PathVariable("userId") String userId) {
+        return ResponseEntity.ok(socialInteractionService.getFollowingIds(userId));
+    }
+}
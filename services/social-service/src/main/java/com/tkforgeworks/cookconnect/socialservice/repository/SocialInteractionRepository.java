@@ -2,9 +2,17 @@ package com.tkforgeworks.cookconnect.socialservice.repository;
 
 import com.tkforgeworks.cookconnect.socialservice.model.SocialInteraction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface SocialInteractionRepository extends JpaRepository<SocialInteraction, String> {
     boolean existsSocialInteractionByForUserId(String forUserId);
+
+    //reads only the following collection table, not the profile's other eager collections
+    @Query("select f from SocialInteraction s join s.followingIds f where s.forUserId = :forUserId")
+    List<String> findFollowingIds(@Param("forUserId") String forUserId);
 }
@@ -2,6 +2,7 @@ package com.tkforgeworks.cookconnect.socialservice.service;
 
 import com.tkforgeworks.cookconnect.socialservice.clients.UserServiceFeignClient;
 import com.tkforgeworks.cookconnect.socialservice.common.dto.UserServiceResponseDto;
+import com.tkforgeworks.cookconnect.socialservice.errorhandler.UserNotFoundException;
 import com.tkforgeworks.cookconnect.socialservice.model.SocialInteraction;
 import com.tkforgeworks.cookconnect.socialservice.model.dto.CookbookDto;
 import com.tkforgeworks.cookconnect.socialservice.model.dto.SocialInteractionDto;
@@ -23,6 +24,7 @@ public class SocialInteractionService {
     private final SocialInteractionRepository socialInteractionRepository;
     private final CookbookService cookBookService;
     private final UserServiceFeignClient userServiceFeignClient;
+    private final UserLookupService userLookupService;
     private final SocialInteractionMapper mapper;
 
     public SocialInteractionDto getSocialProfile(String socialId) {
@@ -39,6 +41,11 @@ public class SocialInteractionService {
         return foundSI.getFollowingIds().stream().toList();
     }
 
+    //for other services, a user without a social profile simply follows nobody
+    public List<String> getFollowingIds(String socialId) {
+        return socialInteractionRepository.findFollowingIds(socialId);
+    }
+
     public List<Long> getBookmarks(String socialId) {
         SocialInteraction foundSI = findOrThrow(socialId);
         return foundSI.getBookmarkedRecipeIds().stream().toList();
@@ -130,7 +137,11 @@ public class SocialInteractionService {
     @CircuitBreaker(name = "main", fallbackMethod = "fallbackGetUserFromExt")
     @Retry(name = "main")
     private UserServiceResponseDto getUserFromExt(String forUserId) {
-        return userServiceFeignClient.getUserById(forUserId);
+        UserServiceResponseDto user = userLookupService.getUser(forUserId);
+        if (user == null) {
+            throw new UserNotFoundException(String.format("User with id %s not found", forUserId));
+        }
+        return user;
     }
 
     @CircuitBreaker(name = "main", fallbackMethod = "fallbackUserServiceAddSI")
@@ -0,0 +1,43 @@
+package com.tkforgeworks.cookconnect.socialservice.service;
+
+import com.tkforgeworks.cookconnect.socialservice.clients.BatchLoader;
+import com.tkforgeworks.cookconnect.socialservice.clients.UserServiceFeignClient;
+import com.tkforgeworks.cookconnect.socialservice.common.dto.UserServiceResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+Looks users up through user-service's POST /internal/batch.
+    concurrent lookups arriving within the batch window share one call; null means user-service does not know the id
+ */
+@Service
+public class UserLookupService {
+    private final UserServiceFeignClient userServiceFeignClient;
+    private final BatchLoader<String, UserServiceResponseDto> userBatchLoader;
+
+    public UserLookupService(UserServiceFeignClient userServiceFeignClient,
+                             MeterRegistry meterRegistry,
+                             @Value("${tkforgeworks.user-lookup.batch-window:PT0.005S}") Duration batchWindow,
+                             @Value("${tkforgeworks.user-lookup.max-batch-size:100}") int maxBatchSize) {
+        this.userServiceFeignClient = userServiceFeignClient;
+        this.userBatchLoader = new BatchLoader<>("users", this::fetchUsers, batchWindow, maxBatchSize, meterRegistry);
+    }
+
+    //GET
+    public UserServiceResponseDto getUser(String ccUserId) {
+        return userBatchLoader.load(ccUserId);
+    }
+
+    //PRIVATE
+    private Map<String, UserServiceResponseDto> fetchUsers(Collection<String> ccUserIds) {
+        return userServiceFeignClient.getUsersByIds(ccUserIds).stream()
+                .collect(Collectors.toMap(UserServiceResponseDto::id, Function.identity(), (first, second) -> first));
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @Controller
 @RequestMapping("/internal")
 @RequiredArgsConstructor
@@ -20,6 +22,11 @@ public class CCUserInternalController {
         return ResponseEntity.ok(mapper.ccUserDtoToUserServiceResponseDto(ccUserService.findUser(ccUserId)));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<UserServiceResponseDto>> getCCUsers(@RequestBody List<String> ccUserIds) {
+        return ResponseEntity.ok(ccUserService.findUserSummaries(ccUserIds));
+    }
+
     @PostMapping("/{userId}/social")
     public ResponseEntity<?> addSocial(@PathVariable("userId") String ccUserId){
         ccUserService.updateSocial(ccUserId, true);
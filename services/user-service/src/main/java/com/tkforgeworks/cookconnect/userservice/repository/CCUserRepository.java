@@ -1,9 +1,14 @@
 package com.tkforgeworks.cookconnect.userservice.repository;
 
+import com.tkforgeworks.cookconnect.userservice.common.dto.UserServiceResponseDto;
 import com.tkforgeworks.cookconnect.userservice.model.CCUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +17,12 @@ public interface CCUserRepository extends JpaRepository<CCUser, String> {
     Optional<CCUser> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("""
+            select new com.tkforgeworks.cookconnect.userservice.common.dto.UserServiceResponseDto(
+                u.id, u.username, u.hasSocialInteraction, u.privateAccount)
+            from CCUser u
+            where u.id in :ids
+            """)
+    List<UserServiceResponseDto> findSummariesByIdIn(@Param("ids") Collection<String> ids);
 }
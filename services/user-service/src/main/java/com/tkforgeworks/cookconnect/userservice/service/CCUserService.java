@@ -1,5 +1,6 @@
 package com.tkforgeworks.cookconnect.userservice.service;
 
+import com.tkforgeworks.cookconnect.userservice.common.dto.UserServiceResponseDto;
 import com.tkforgeworks.cookconnect.userservice.errorhandler.UserNotFoundException;
 import com.tkforgeworks.cookconnect.userservice.model.CCUser;
 import com.tkforgeworks.cookconnect.userservice.model.dto.CCUserDto;
@@ -12,6 +13,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -20,6 +23,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 @Slf4j
 public class CCUserService {
+    public static final int MAX_BATCH_SIZE = 500;
+
     private final CCUserRepository userRepository;
     private final ProfileInfoService profileInfoService;
     private final CCUserRegistrationService userRegistrationService;
@@ -54,6 +59,22 @@ public class CCUserService {
         return ccUser.map(mapper::ccUserToCCUserDto).orElseThrow(() -> new UserNotFoundException(String.format("User with id %s not found", ccUserId)));
     }
 
+    /*
+    Bulk lookup for internal callers batching their user lookups.
+        ids that do not exist are left out of the result rather than failing the whole batch
+     */
+    @Transactional(readOnly = true)
+    public List<UserServiceResponseDto> findUserSummaries(Collection<String> ccUserIds) {
+        if (ccUserIds == null || ccUserIds.isEmpty()) {
+            return List.of();
+        }
+        LinkedHashSet<String> distinctIds = new LinkedHashSet<>(ccUserIds);
+        if (distinctIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(String.format("At most %d user ids can be requested at once", MAX_BATCH_SIZE));
+        }
+        return userRepository.findSummariesByIdIn(distinctIds);
+    }
+
     public List<CCUserDto> getAllUsers() {
         return mapper.ccUsersToCCUserDtos(userRepository.findAll());
     }